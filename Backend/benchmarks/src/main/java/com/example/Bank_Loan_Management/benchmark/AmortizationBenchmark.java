@@ -0,0 +1,61 @@
+package com.example.Bank_Loan_Management.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Bank_Loan_Management.service.AmortizationSchedule;
+
+/**
+ * Computing a repayment schedule, and streaming one out as CSV and JSON.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AmortizationBenchmark {
+
+    @Param({"12", "60", "360"})
+    private int term;
+
+    private final BigDecimal amount = new BigDecimal("250000.00");
+    private final BigDecimal rate = new BigDecimal("7.25");
+    private final Writer sink = Writer.nullWriter();
+    private AmortizationSchedule schedule;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        schedule = AmortizationSchedule.compute(amount, rate, term);
+    }
+
+    @Benchmark
+    public AmortizationSchedule compute() {
+        return AmortizationSchedule.compute(amount, rate, term);
+    }
+
+    @Benchmark
+    public void writeCsv() throws IOException {
+        schedule.writeCsv(sink);
+    }
+
+    @Benchmark
+    public void writeJson() throws IOException {
+        schedule.writeJson(sink);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.Bank_Loan_Management.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.InterestRateRepository;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository.LoanHistorySummary;
+import com.example.Bank_Loan_Management.repository.ScoringRuleSetRepository;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+import com.example.Bank_Loan_Management.service.CreditScoringEngine;
+import com.example.Bank_Loan_Management.service.CreditScoringService;
+import com.example.Bank_Loan_Management.service.InterestRateCache;
+import com.example.Bank_Loan_Management.service.ScoringRuleService;
+
+/**
+ * {@link CreditScoringService#calculateCreditScore} with the loan history query answered from memory,
+ * plus the compiled engine on its own. Each invocation scores the next fixture application, cycling
+ * through a few thousand distinct borrowers so branch profiles stay realistic.
+ * {@code engineScore} always evaluates every factor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditScoringBenchmark {
+
+    private static final int FIXTURES = 4096;
+
+    // Whether borrowers carry profile points cached by a previous scoring
+    @Param({"false", "true"})
+    private boolean cachedProfilePoints;
+
+    private CreditScoringService creditScoringService;
+    private CreditScoringEngine engine;
+    private LoanApplication[] applications;
+    private LoanHistorySummary[] histories;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User[] users = Fixtures.users(FIXTURES, 42L);
+        applications = Fixtures.applications(users, FIXTURES, 43L);
+        histories = new LoanHistorySummary[users.length + 1];
+        Random random = new Random(44L);
+        for (User user : users) {
+            histories[user.getId().intValue()] = random.nextInt(3) == 0 ? null : history(random, user.getId());
+        }
+
+        LoanApplicationRepository loanApplicationRepository = Stubs.repository(LoanApplicationRepository.class, Map.of(
+                "summarizeHistory", args -> Optional.ofNullable(histories[((Long) args[0]).intValue()])));
+        InterestRateRepository interestRateRepository = Stubs.repository(InterestRateRepository.class, Map.of(
+                "findAll", args -> List.of()));
+        ScoringRuleService scoringRuleService = new ScoringRuleService(
+                Stubs.repository(ScoringRuleSetRepository.class, Map.of()));
+
+        creditScoringService = new CreditScoringService(new InterestRateCache(interestRateRepository),
+                loanApplicationRepository, scoringRuleService, Stubs.repository(UserRepository.class, Map.of()));
+        engine = scoringRuleService.getActiveEngine();
+        if (cachedProfilePoints) {
+            for (User user : users) {
+                user.setProfilePoints(engine.profilePoints(user));
+                user.setProfilePointsVersion(engine.getVersion());
+            }
+        }
+    }
+
+    @Benchmark
+    public int calculateCreditScore() {
+        LoanApplication application = nextApplication();
+        return creditScoringService.calculateCreditScore(application.getUser(), application.getAmount(),
+                application.getTerm(), application.getPurpose());
+    }
+
+    @Benchmark
+    public int engineScore() {
+        LoanApplication application = nextApplication();
+        LoanHistorySummary history = histories[application.getUser().getId().intValue()];
+        return history == null
+                ? engine.score(application.getUser(), application.getAmount(), application.getTerm(),
+                        application.getPurpose(), 0, 0, 0, 0)
+                : engine.score(application.getUser(), application.getAmount(), application.getTerm(),
+                        application.getPurpose(), (int) history.getApprovedCount(), (int) history.getRejectedCount(),
+                        (int) history.getFullyPaidCount(), (int) history.getOutstandingCount());
+    }
+
+    private LoanApplication nextApplication() {
+        LoanApplication application = applications[next];
+        next = (next + 1) & (FIXTURES - 1);
+        return application;
+    }
+
+    private static LoanHistorySummary history(Random random, Long userId) {
+        long approved = random.nextInt(4);
+        long rejected = random.nextInt(3);
+        long fullyPaid = approved == 0 ? 0 : random.nextInt((int) approved + 1);
+        long outstanding = approved - fullyPaid;
+        return new LoanHistorySummary() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public long getApprovedCount() {
+                return approved;
+            }
+
+            @Override
+            public long getRejectedCount() {
+                return rejected;
+            }
+
+            @Override
+            public long getFullyPaidCount() {
+                return fullyPaid;
+            }
+
+            @Override
+            public long getOutstandingCount() {
+                return outstanding;
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.Bank_Loan_Management.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+import com.example.Bank_Loan_Management.entity.User;
+
+/**
+ * Seeded generators for borrowers and applications shaped like the data the application sees: incomes
+ * and debts spread across every scoring band, a mix of employment and marital statuses, the purposes the
+ * frontend offers, and the odd missing profile field.
+ */
+final class Fixtures {
+
+    static final String[] PURPOSES = {"Home Purchase", "Car Purchase", "Education", "Business", "Personal",
+            "Health", "Travel", "Wedding", "Home Renovation", "Debt Consolidation", "Other"};
+    private static final String[] EMPLOYMENT = {"EMPLOYED", "EMPLOYED", "EMPLOYED", "SELF_EMPLOYED", "UNEMPLOYED", "STUDENT"};
+    private static final String[] MARITAL = {"SINGLE", "MARRIED", "MARRIED", "DIVORCED"};
+    private static final String[] CREDIT_MIX = {"", "credit_card", "mortgage,credit_card", "mortgage,credit_card,auto",
+            "auto,student_loan", "mortgage,credit_card,auto,personal"};
+    private static final int[] TERMS = {6, 12, 18, 24, 36, 48, 60, 72, 84};
+
+    private Fixtures() {
+    }
+
+    static User[] users(int count, long seed) {
+        Random random = new Random(seed);
+        User[] users = new User[count];
+        for (int i = 0; i < count; i++) {
+            users[i] = user(random, i + 1L);
+        }
+        return users;
+    }
+
+    static LoanApplication[] applications(User[] users, int count, long seed) {
+        Random random = new Random(seed);
+        LoanApplication[] applications = new LoanApplication[count];
+        for (int i = 0; i < count; i++) {
+            applications[i] = application(random, users[random.nextInt(users.length)], i + 1L);
+        }
+        return applications;
+    }
+
+    static User user(Random random, long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setPassword("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchma");
+        user.setEmail("user" + id + "@example.com");
+        user.setRole(User.Role.USER);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        // Roughly one borrower in twenty has not completed the credit profile
+        if (random.nextInt(20) == 0) {
+            return user;
+        }
+        // Log-normal around 55k, in whole currency units with cents
+        long income = Math.round(Math.exp(10.9 + random.nextGaussian() * 0.6));
+        user.setAnnualIncome(BigDecimal.valueOf(income * 100 + random.nextInt(100), 2));
+        user.setExistingDebts(BigDecimal.valueOf((long) (income * random.nextDouble() * 0.6) * 100, 2));
+        user.setEmploymentStatus(EMPLOYMENT[random.nextInt(EMPLOYMENT.length)]);
+        user.setMaritalStatus(MARITAL[random.nextInt(MARITAL.length)]);
+        user.setAge(21 + random.nextInt(50));
+        user.setCreditHistoryLength(random.nextInt(Math.max(1, user.getAge() - 18)));
+        user.setNumberOfLatePayments(random.nextInt(3) == 0 ? random.nextInt(8) : 0);
+        user.setCreditUtilization(BigDecimal.valueOf(random.nextInt(1000), 1));
+        user.setNumberOfCreditInquiries(random.nextInt(7));
+        user.setCreditMix(CREDIT_MIX[random.nextInt(CREDIT_MIX.length)]);
+        return user;
+    }
+
+    static LoanApplication application(Random random, User user, long id) {
+        LoanApplication application = new LoanApplication();
+        application.setId(id);
+        application.setUser(user);
+        // 1k to 80k in steps of 500, weighted towards smaller loans
+        int steps = (int) (Math.pow(random.nextDouble(), 2) * 158) + 2;
+        application.setAmount(BigDecimal.valueOf(steps * 500L));
+        application.setTerm(TERMS[random.nextInt(TERMS.length)]);
+        application.setPurpose(PURPOSES[random.nextInt(PURPOSES.length)]);
+        application.setStatus(LoanApplication.Status.VERIFIED);
+        application.setAppliedDate(LocalDateTime.of(2024, 6, 1, 9, 0).plusMinutes(id * 7));
+        application.setDocumentsVerified(true);
+        application.setCreditScore(300 + random.nextInt(551));
+        application.setScoringRuleVersion(1);
+        application.setInterestRate(BigDecimal.valueOf(500 + random.nextInt(900), 2));
+        return application;
+    }
+}
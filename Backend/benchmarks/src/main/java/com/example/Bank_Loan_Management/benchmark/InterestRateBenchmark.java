@@ -0,0 +1,78 @@
+package com.example.Bank_Loan_Management.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Bank_Loan_Management.entity.InterestRate;
+import com.example.Bank_Loan_Management.repository.InterestRateRepository;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.repository.ScoringRuleSetRepository;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+import com.example.Bank_Loan_Management.service.CreditScoringService;
+import com.example.Bank_Loan_Management.service.InterestRateCache;
+import com.example.Bank_Loan_Management.service.ScoringRuleService;
+
+/**
+ * {@link CreditScoringService#getInterestRate} against a snapshot holding a couple of configured rates,
+ * with purposes spelled the way the frontend sends them (mixed case, so the canonicalizing path runs).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterestRateBenchmark {
+
+    private static final int FIXTURES = 4096;
+
+    private CreditScoringService creditScoringService;
+    private String[] purposes;
+    private int[] creditScores;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<InterestRate> configured = List.of(
+                new InterestRate("education", BigDecimal.valueOf(6.75)),
+                new InterestRate("wedding", BigDecimal.valueOf(9.25)));
+        InterestRateRepository interestRateRepository = Stubs.repository(InterestRateRepository.class, Map.of(
+                "findAll", args -> configured));
+        InterestRateCache interestRateCache = new InterestRateCache(interestRateRepository);
+        interestRateCache.reload();
+        creditScoringService = new CreditScoringService(interestRateCache,
+                Stubs.repository(LoanApplicationRepository.class, Map.of()),
+                new ScoringRuleService(Stubs.repository(ScoringRuleSetRepository.class, Map.of())),
+                Stubs.repository(UserRepository.class, Map.of()));
+
+        Random random = new Random(42L);
+        purposes = new String[FIXTURES];
+        creditScores = new int[FIXTURES];
+        for (int i = 0; i < FIXTURES; i++) {
+            purposes[i] = Fixtures.PURPOSES[random.nextInt(Fixtures.PURPOSES.length)];
+            creditScores[i] = 300 + random.nextInt(551);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal getInterestRate() {
+        int i = next;
+        next = (next + 1) & (FIXTURES - 1);
+        return creditScoringService.getInterestRate(purposes[i], creditScores[i]);
+    }
+}
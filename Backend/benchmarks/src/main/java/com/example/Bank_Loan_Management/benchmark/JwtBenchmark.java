@@ -0,0 +1,87 @@
+package com.example.Bank_Loan_Management.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Bank_Loan_Management.util.JwtUtil;
+
+/**
+ * Token issue and the per-request parse path of {@link JwtUtil}, configured with the same secret length
+ * and expiry as application.properties.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String[] ROLES = {"USER", "LOAN_MANAGER", "MANAGER", "ADMIN"};
+    private static final int FIXTURES = 256;
+
+    private JwtUtil jwtUtil;
+    private String[] usernames;
+    private String[] tokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        jwtUtil = new JwtUtil();
+        // Normally injected from jwt.secret and jwt.expiration
+        set(jwtUtil, "secret", "mySuperSecretKeyThatIsAtLeast32CharactersLong");
+        set(jwtUtil, "expirationTime", 86_400_000L);
+
+        usernames = new String[FIXTURES];
+        tokens = new String[FIXTURES];
+        for (int i = 0; i < FIXTURES; i++) {
+            usernames[i] = "user" + (i + 1);
+            tokens[i] = jwtUtil.generateToken(usernames[i], ROLES[i % ROLES.length]);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        int i = advance();
+        return jwtUtil.generateToken(usernames[i], ROLES[i % ROLES.length]);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(tokens[advance()]);
+    }
+
+    /**
+     * What JwtAuthenticationFilter does per request: read the subject, then validate against it.
+     */
+    @Benchmark
+    public boolean authenticateRequest() {
+        String token = tokens[advance()];
+        String username = jwtUtil.extractUsername(token);
+        return jwtUtil.validateToken(token, username);
+    }
+
+    private int advance() {
+        int i = next;
+        next = (next + 1) & (FIXTURES - 1);
+        return i;
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.Bank_Loan_Management.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.DocumentRepository;
+import com.example.Bank_Loan_Management.repository.InterestRateRepository;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.repository.ScoringRuleSetRepository;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+import com.example.Bank_Loan_Management.service.AmortizationService;
+import com.example.Bank_Loan_Management.service.ChangeVersionService;
+import com.example.Bank_Loan_Management.service.CreditScoringService;
+import com.example.Bank_Loan_Management.service.InterestRateCache;
+import com.example.Bank_Loan_Management.service.LoanService;
+import com.example.Bank_Loan_Management.service.NotificationService;
+import com.example.Bank_Loan_Management.service.ScoringRuleService;
+
+/**
+ * {@link LoanService#approveLoan}: the status check and the repayment schedule behind the pending amount, with
+ * the repository answered from memory and notifications dropped. Each fixture is put back into VERIFIED
+ * before it is approved again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanApprovalBenchmark {
+
+    private static final int FIXTURES = 4096;
+
+    private LoanService loanService;
+    private LoanApplication[] applications;
+    private User manager;
+    private PrintStream originalOut;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User[] users = Fixtures.users(FIXTURES, 42L);
+        applications = Fixtures.applications(users, FIXTURES, 43L);
+        manager = users[0];
+        manager.setRole(User.Role.MANAGER);
+
+        LoanApplicationRepository loanApplicationRepository = Stubs.repository(LoanApplicationRepository.class, Map.of(
+                "findById", args -> Optional.of(applications[((Long) args[0]).intValue() - 1]),
+                "save", args -> args[0]));
+        CreditScoringService creditScoringService = new CreditScoringService(
+                new InterestRateCache(Stubs.repository(InterestRateRepository.class, Map.of("findAll", args -> List.of()))),
+                loanApplicationRepository,
+                new ScoringRuleService(Stubs.repository(ScoringRuleSetRepository.class, Map.of())),
+                Stubs.repository(UserRepository.class, Map.of()));
+        loanService = new LoanService(loanApplicationRepository, Stubs.repository(DocumentRepository.class, Map.of()),
+                creditScoringService, new DroppedNotifications(), new AmortizationService(),
+                new ChangeVersionService());
+
+        // approveLoan logs every call to stdout; keep that cost but not the output
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public LoanApplication approveLoan() {
+        LoanApplication application = applications[next];
+        next = (next + 1) & (FIXTURES - 1);
+        application.setStatus(LoanApplication.Status.VERIFIED);
+        return loanService.approveLoan(application.getId(), manager);
+    }
+
+    private static final class DroppedNotifications extends NotificationService {
+        @Override
+        public void sendLoanStatusUpdate(Long userId, Long applicationId, String status) {
+        }
+    }
+}
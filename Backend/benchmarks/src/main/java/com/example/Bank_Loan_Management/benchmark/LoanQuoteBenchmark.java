@@ -0,0 +1,76 @@
+package com.example.Bank_Loan_Management.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.InterestRateRepository;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.repository.ScoringRuleSetRepository;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+import com.example.Bank_Loan_Management.service.CreditScoringService;
+import com.example.Bank_Loan_Management.service.InterestRateCache;
+import com.example.Bank_Loan_Management.service.LoanQuoteService;
+import com.example.Bank_Loan_Management.service.ScoringRuleService;
+
+/**
+ * {@link LoanQuoteService#quote} for a 100-cell grid: 5 amounts x 5 terms x 4 purposes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanQuoteBenchmark {
+
+    private LoanQuoteService loanQuoteService;
+    private User[] users;
+    private List<LoanQuoteService.Candidate> grid;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = Fixtures.users(256, 42L);
+        LoanApplicationRepository loanApplicationRepository = Stubs.repository(LoanApplicationRepository.class, Map.of(
+                "summarizeHistory", args -> Optional.empty()));
+        CreditScoringService creditScoringService = new CreditScoringService(
+                new InterestRateCache(Stubs.repository(InterestRateRepository.class, Map.of("findAll", args -> List.of()))),
+                loanApplicationRepository,
+                new ScoringRuleService(Stubs.repository(ScoringRuleSetRepository.class, Map.of())),
+                Stubs.repository(UserRepository.class, Map.of()));
+        loanQuoteService = new LoanQuoteService(creditScoringService, loanApplicationRepository);
+
+        grid = new ArrayList<>();
+        for (long amount : new long[] {5_000, 10_000, 20_000, 35_000, 60_000}) {
+            for (int term : new int[] {12, 24, 36, 60, 84}) {
+                for (String purpose : new String[] {"Home Purchase", "Car Purchase", "Education", "Personal"}) {
+                    grid.add(new LoanQuoteService.Candidate(BigDecimal.valueOf(amount), term, purpose));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public LoanQuoteService.LoanQuote[] quoteGrid() {
+        User user = users[next];
+        next = (next + 1) & (users.length - 1);
+        return loanQuoteService.quote(user, grid);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.Bank_Loan_Management.config;
+
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.Bank_Loan_Management.controller.DocumentStreamUploadServlet;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+import com.example.Bank_Loan_Management.service.DocumentService;
+
+@Configuration
+public class StreamingUploadConfig {
+
+    @Bean
+    public ServletRegistrationBean<DocumentStreamUploadServlet> documentStreamUploadServlet(DocumentService documentService,
+                                                                                           UserRepository userRepository) {
+        ServletRegistrationBean<DocumentStreamUploadServlet> registration = new ServletRegistrationBean<>(
+                new DocumentStreamUploadServlet(documentService, userRepository), "/api/user/documents/stream");
+        // Required for the non-blocking read; the security filter chain is async-capable already
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.Bank_Loan_Management.controller;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +21,8 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.Bank_Loan_Management.entity.User;
 import com.example.Bank_Loan_Management.repository.UserRepository;
 import com.example.Bank_Loan_Management.service.AuthService;
+import com.example.Bank_Loan_Management.service.ChangeVersionService;
+import com.example.Bank_Loan_Management.service.CreditScoringService;
 
 @RestController
 @RequestMapping("/auth")
@@ -28,11 +31,16 @@ public class AuthController {
     private final AuthService authService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CreditScoringService creditScoringService;
+    private final ChangeVersionService changeVersionService;
 
-    public AuthController(AuthService authService, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthController(AuthService authService, UserRepository userRepository, PasswordEncoder passwordEncoder,
+                          CreditScoringService creditScoringService, ChangeVersionService changeVersionService) {
         this.authService = authService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.creditScoringService = creditScoringService;
+        this.changeVersionService = changeVersionService;
     }
 
     @PostMapping("/register")
@@ -95,7 +103,23 @@ public class AuthController {
             if (request.getPassword() != null && !request.getPassword().isEmpty()) {
                 user.setPassword(passwordEncoder.encode(request.getPassword()));
             }
+            // Credit profile; changing any of these clears the user's cached scoring profile points
+            if (request.getAnnualIncome() != null) user.setAnnualIncome(request.getAnnualIncome());
+            if (request.getEmploymentStatus() != null) user.setEmploymentStatus(request.getEmploymentStatus());
+            if (request.getAge() != null) user.setAge(request.getAge());
+            if (request.getMaritalStatus() != null) user.setMaritalStatus(request.getMaritalStatus());
+            if (request.getExistingDebts() != null) user.setExistingDebts(request.getExistingDebts());
+            if (request.getCreditHistoryLength() != null) user.setCreditHistoryLength(request.getCreditHistoryLength());
+            if (request.getNumberOfLatePayments() != null) user.setNumberOfLatePayments(request.getNumberOfLatePayments());
+            if (request.getCreditUtilization() != null) user.setCreditUtilization(request.getCreditUtilization());
+            if (request.getNumberOfCreditInquiries() != null) user.setNumberOfCreditInquiries(request.getNumberOfCreditInquiries());
+            if (request.getCreditMix() != null) user.setCreditMix(request.getCreditMix());
             User savedUser = userRepository.save(user);
+            creditScoringService.refreshProfilePoints(creditScoringService.getActiveEngine(), savedUser);
+            if (request.getUsername() != null || request.getEmail() != null) {
+                // Loan listings show the borrower's username and email
+                changeVersionService.changed(ChangeVersionService.Collection.LOANS);
+            }
             return ResponseEntity.ok(savedUser);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -160,6 +184,16 @@ public class AuthController {
         private String password;
         private String email;
         private String role;
+        private BigDecimal annualIncome;
+        private String employmentStatus;
+        private Integer age;
+        private String maritalStatus;
+        private BigDecimal existingDebts;
+        private Integer creditHistoryLength;
+        private Integer numberOfLatePayments;
+        private BigDecimal creditUtilization;
+        private Integer numberOfCreditInquiries;
+        private String creditMix;
 
         // getters and setters
         public String getUsername() { return username; }
@@ -170,5 +204,25 @@ public class AuthController {
         public void setEmail(String email) { this.email = email; }
         public String getRole() { return role; }
         public void setRole(String role) { this.role = role; }
+        public BigDecimal getAnnualIncome() { return annualIncome; }
+        public void setAnnualIncome(BigDecimal annualIncome) { this.annualIncome = annualIncome; }
+        public String getEmploymentStatus() { return employmentStatus; }
+        public void setEmploymentStatus(String employmentStatus) { this.employmentStatus = employmentStatus; }
+        public Integer getAge() { return age; }
+        public void setAge(Integer age) { this.age = age; }
+        public String getMaritalStatus() { return maritalStatus; }
+        public void setMaritalStatus(String maritalStatus) { this.maritalStatus = maritalStatus; }
+        public BigDecimal getExistingDebts() { return existingDebts; }
+        public void setExistingDebts(BigDecimal existingDebts) { this.existingDebts = existingDebts; }
+        public Integer getCreditHistoryLength() { return creditHistoryLength; }
+        public void setCreditHistoryLength(Integer creditHistoryLength) { this.creditHistoryLength = creditHistoryLength; }
+        public Integer getNumberOfLatePayments() { return numberOfLatePayments; }
+        public void setNumberOfLatePayments(Integer numberOfLatePayments) { this.numberOfLatePayments = numberOfLatePayments; }
+        public BigDecimal getCreditUtilization() { return creditUtilization; }
+        public void setCreditUtilization(BigDecimal creditUtilization) { this.creditUtilization = creditUtilization; }
+        public Integer getNumberOfCreditInquiries() { return numberOfCreditInquiries; }
+        public void setNumberOfCreditInquiries(Integer numberOfCreditInquiries) { this.numberOfCreditInquiries = numberOfCreditInquiries; }
+        public String getCreditMix() { return creditMix; }
+        public void setCreditMix(String creditMix) { this.creditMix = creditMix; }
     }
 }
@@ -0,0 +1,238 @@
+package com.example.Bank_Loan_Management.controller;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.Bank_Loan_Management.entity.Document;
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+import com.example.Bank_Loan_Management.service.ContentStore;
+import com.example.Bank_Loan_Management.service.DocumentService;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Document upload that takes the raw file as the request body:
+ * {@code POST /api/user/documents/stream?documentType=...&fileName=...}, with the file's Content-Type and
+ * optionally its hex SHA-256 in {@code X-Content-SHA256}.
+ *
+ * The body is read once, with a non-blocking {@link ReadListener}, straight into the content store. No
+ * request thread waits on a slow client, nothing is spooled to a multipart temp file, and the size limit
+ * and checksum are enforced while the bytes arrive. Registered by StreamingUploadConfig, outside the
+ * DispatcherServlet, since Spring MVC reads request bodies blocking.
+ *
+ * Parameters are taken from the query string only: {@code getParameter} would read a form-encoded body
+ * before the listener is attached. Committing the content and saving the document block on disk and the
+ * database, so they run on a small pool of their own rather than on the container's I/O thread.
+ */
+public class DocumentStreamUploadServlet extends HttpServlet {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentStreamUploadServlet.class);
+
+    static final String CHECKSUM_HEADER = "X-Content-SHA256";
+    private static final long UPLOAD_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int COMPLETION_THREADS = 4;
+
+    private final DocumentService documentService;
+    private final UserRepository userRepository;
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService completions = Executors.newFixedThreadPool(COMPLETION_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "stream-upload-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DocumentStreamUploadServlet(DocumentService documentService, UserRepository userRepository) {
+        this.documentService = documentService;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = authentication == null ? null : userRepository.findByUsername(authentication.getName()).orElse(null);
+        if (user == null) {
+            sendError(response, HttpStatus.UNAUTHORIZED, "Authentication required");
+            return;
+        }
+        String documentType = queryParameter(request, "documentType");
+        String fileName = queryParameter(request, "fileName");
+        if (documentType == null || documentType.isBlank() || fileName == null || fileName.isBlank()) {
+            sendError(response, HttpStatus.BAD_REQUEST, "documentType and fileName are required");
+            return;
+        }
+        // Refused before reading anything when the client declares the size up front
+        if (request.getContentLengthLong() > DocumentService.MAX_DOCUMENT_BYTES) {
+            sendError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "File is larger than the " + DocumentService.MAX_DOCUMENT_BYTES + " byte limit");
+            return;
+        }
+        String contentType = request.getContentType() != null ? request.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+
+        ContentStore.PendingContent content = documentService.beginUpload(request.getHeader(CHECKSUM_HEADER));
+        AsyncContext async = request.startAsync();
+        async.setTimeout(UPLOAD_TIMEOUT_MILLIS);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                logger.warn("Streamed upload of {} timed out for user {} after {} bytes", fileName, user.getUsername(),
+                        content.getSize());
+                content.abort();
+                finish(async, HttpStatus.REQUEST_TIMEOUT, "Upload timed out");
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                logger.warn("Streamed upload of {} failed for user {}: {}", fileName, user.getUsername(),
+                        String.valueOf(event.getThrowable()));
+                content.abort();
+                finish(async, HttpStatus.BAD_REQUEST, "Upload interrupted");
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                // However the request ended, an upload that was not committed leaves nothing in the store
+                content.abort();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        ServletInputStream input = request.getInputStream();
+        input.setReadListener(new ReadListener() {
+            private final byte[] buffer = new byte[BUFFER_SIZE];
+
+            @Override
+            public void onDataAvailable() throws IOException {
+                // Reads only what has arrived; the container calls back when there is more
+                while (!content.isAborted() && input.isReady()) {
+                    int read = input.read(buffer);
+                    if (read == -1) {
+                        return;
+                    }
+                    try {
+                        content.write(buffer, 0, read);
+                    } catch (IllegalArgumentException e) {
+                        content.abort();
+                        finish(async, HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+                        return;
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                if (content.isAborted()) {
+                    // Already answered: over the size limit, timed out or failed
+                    return;
+                }
+                try {
+                    completions.execute(this::store);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    content.abort();
+                    finish(async, HttpStatus.SERVICE_UNAVAILABLE, "Server is shutting down");
+                }
+            }
+
+            private void store() {
+                try {
+                    Document document = documentService.uploadDocument(user, content, fileName, contentType, documentType);
+                    logger.info("Streamed upload of {} ({} bytes) stored as document {} for user {}",
+                            fileName, document.getFileSize(), document.getId(), user.getUsername());
+                    HttpServletResponse asyncResponse = (HttpServletResponse) async.getResponse();
+                    asyncResponse.setStatus(HttpStatus.CREATED.value());
+                    asyncResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    asyncResponse.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                    asyncResponse.getWriter().write("{\"id\":" + document.getId()
+                            + ",\"contentHash\":\"" + document.getContentHash()
+                            + "\",\"fileSize\":" + document.getFileSize()
+                            + ",\"status\":\"" + document.getStatus() + "\"}");
+                    async.complete();
+                } catch (IllegalArgumentException e) {
+                    finish(async, HttpStatus.BAD_REQUEST, e.getMessage());
+                } catch (Exception e) {
+                    logger.error("Streamed upload of {} failed for user {}", fileName, user.getUsername(), e);
+                    finish(async, HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload document");
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                // Client disconnected or timed out mid-upload
+                logger.warn("Streamed upload of {} aborted for user {}: {}", fileName, user.getUsername(), error.toString());
+                content.abort();
+                finish(async, HttpStatus.BAD_REQUEST, "Upload interrupted");
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        completions.shutdown();
+        super.destroy();
+    }
+
+    /**
+     * A parameter from the query string, never from the body.
+     */
+    private static String queryParameter(HttpServletRequest request, String name) {
+        String query = request.getQueryString();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            if (URLDecoder.decode(key, StandardCharsets.UTF_8).equals(name)) {
+                return equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void finish(AsyncContext async, HttpStatus status, String message) {
+        try {
+            HttpServletResponse response = (HttpServletResponse) async.getResponse();
+            if (!response.isCommitted()) {
+                sendError(response, status, message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Could not send upload error response: {}", e.getMessage());
+        } finally {
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+
+    private static void sendError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+    }
+}
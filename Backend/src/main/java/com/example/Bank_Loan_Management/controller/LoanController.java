@@ -1,14 +1,24 @@
 package com.example.Bank_Loan_Management.controller;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -22,16 +32,37 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.Bank_Loan_Management.entity.Document;
 import com.example.Bank_Loan_Management.entity.InterestRate;
 import com.example.Bank_Loan_Management.entity.LoanApplication;
 import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.DocumentRepository;
 import com.example.Bank_Loan_Management.repository.InterestRateRepository;
+import com.example.Bank_Loan_Management.repository.KeysetPage;
+import com.example.Bank_Loan_Management.repository.LoanApplicationFilter;
+import com.example.Bank_Loan_Management.repository.LoanListing;
 import com.example.Bank_Loan_Management.repository.UserRepository;
+import com.example.Bank_Loan_Management.service.AmortizationSchedule;
+import com.example.Bank_Loan_Management.service.ChangeVersionService;
+import com.example.Bank_Loan_Management.service.ColdStorageService;
+import com.example.Bank_Loan_Management.service.DocumentCompression;
 import com.example.Bank_Loan_Management.service.DocumentService;
+import com.example.Bank_Loan_Management.service.ExportService;
+import com.example.Bank_Loan_Management.service.InterestRateCache;
+import com.example.Bank_Loan_Management.service.LoanQuoteService;
+import com.example.Bank_Loan_Management.service.LoanRescoringService;
 import com.example.Bank_Loan_Management.service.LoanService;
+import com.example.Bank_Loan_Management.service.PortfolioAnalyticsService;
+import com.example.Bank_Loan_Management.service.StatusEventService;
+import com.example.Bank_Loan_Management.util.FileRangeWriter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api")
@@ -39,16 +70,42 @@ public class LoanController {
 
     private static final Logger logger = LoggerFactory.getLogger(LoanController.class);
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TOTAL_ESTIMATE_HEADER = "X-Total-Count-Estimate";
+
     private final LoanService loanService;
     private final UserRepository userRepository;
     private final DocumentService documentService;
     private final InterestRateRepository interestRateRepository;
+    private final InterestRateCache interestRateCache;
+    private final LoanRescoringService loanRescoringService;
+    private final LoanQuoteService loanQuoteService;
+    private final PortfolioAnalyticsService portfolioAnalyticsService;
+    private final ExportService exportService;
+    private final ChangeVersionService changeVersionService;
+    private final StatusEventService statusEventService;
+    private final DocumentCompression documentCompression;
+    private final ColdStorageService coldStorageService;
 
-    public LoanController(LoanService loanService, UserRepository userRepository, DocumentService documentService, InterestRateRepository interestRateRepository) {
+    public LoanController(LoanService loanService, UserRepository userRepository, DocumentService documentService,
+                          InterestRateRepository interestRateRepository, InterestRateCache interestRateCache,
+                          LoanRescoringService loanRescoringService, LoanQuoteService loanQuoteService,
+                          PortfolioAnalyticsService portfolioAnalyticsService, ExportService exportService,
+                          ChangeVersionService changeVersionService, StatusEventService statusEventService,
+                          DocumentCompression documentCompression, ColdStorageService coldStorageService) {
         this.loanService = loanService;
         this.userRepository = userRepository;
         this.documentService = documentService;
         this.interestRateRepository = interestRateRepository;
+        this.interestRateCache = interestRateCache;
+        this.loanRescoringService = loanRescoringService;
+        this.loanQuoteService = loanQuoteService;
+        this.portfolioAnalyticsService = portfolioAnalyticsService;
+        this.exportService = exportService;
+        this.changeVersionService = changeVersionService;
+        this.statusEventService = statusEventService;
+        this.documentCompression = documentCompression;
+        this.coldStorageService = coldStorageService;
     }
 
     // User endpoints
@@ -174,6 +231,8 @@ public class LoanController {
 
             return ResponseEntity.ok(application);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
         } catch (Exception e) {
             logger.error("Error processing loan application for user: {}", userDetails != null ? userDetails.getUsername() : "null", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -181,83 +240,96 @@ public class LoanController {
         }
     }
 
+    /**
+     * Scores and prices loan candidates for the current user without applying. Candidates are either
+     * listed one by one or given as amounts x terms x purposes, which is expanded into every combination.
+     */
+    @PostMapping("/user/loans/quotes")
+    public ResponseEntity<?> quoteLoans(@AuthenticationPrincipal UserDetails userDetails,
+                                        @RequestBody LoanQuoteRequest request) {
+        try {
+            User user = userRepository.findByUsername(userDetails.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            return ResponseEntity.ok(loanQuoteService.quote(user, request.toCandidates()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
     @GetMapping("/user/loans")
     public ResponseEntity<List<LoanSummaryDTO>> getMyLoans(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userRepository.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         List<LoanApplication> loans = loanService.getLoansByUser(user);
         List<LoanSummaryDTO> loanSummaries = loans.stream()
-                .map(loan -> new LoanSummaryDTO(
-                        loan.getId(),
-                        loan.getAmount(),
-                        loan.getTerm(),
-                        loan.getPurpose(),
-                        loan.getStatus(),
-                        loan.getCreditScore(),
-                        loan.getAppliedDate(),
-                        loan.getDecisionDate(),
-                        loan.getApprovedAmount(),
-                        loan.getPaidAmount(),
-                        loan.getPendingAmount(),
-                        loan.getInterestRate(),
-                        loan.getUser(),
-                        loan.getLoanManager(),
-                        loan.getManager()
-                ))
+                .map(this::toLoanSummaryDTO)
                 .toList();
         return ResponseEntity.ok(loanSummaries);
     }
 
+    @GetMapping("/user/loans/{id}/schedule")
+    public ResponseEntity<?> getMyRepaymentSchedule(@AuthenticationPrincipal UserDetails userDetails, @PathVariable Long id,
+                                                    @RequestParam(defaultValue = "json") String format) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Someone else's loan answers exactly like a missing one, so loan ids cannot be probed
+        Optional<LoanApplication> application = loanService.findLoan(id)
+                .filter(loan -> loan.getUser().getId().equals(user.getId()));
+        if (application.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Application not found"));
+        }
+        return repaymentSchedule(application.get(), format);
+    }
+
+    /**
+     * Live loan and document status changes as server-sent events. Borrowers get their own, staff get all.
+     */
+    @GetMapping(value = "/user/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamStatusEvents(@AuthenticationPrincipal UserDetails userDetails) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            SseEmitter emitter = statusEventService.subscribe(user.getId(), user.getRole() != User.Role.USER);
+            return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+        } catch (RuntimeException e) {
+            logger.warn("Refusing event stream for user {}: {}", user.getUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     // Admin endpoints
+    /**
+     * One page of loans, newest first. The cursor for the next page is returned in the X-Next-Cursor
+     * header, which is absent on the last page.
+     */
     @GetMapping("/admin/loans")
-    public ResponseEntity<List<LoanSummaryDTO>> getAllLoans() {
-        List<LoanApplication> loans = loanService.getAllLoans();
-        List<LoanSummaryDTO> loanSummaries = loans.stream()
-                .map(loan -> new LoanSummaryDTO(
-                        loan.getId(),
-                        loan.getAmount(),
-                        loan.getTerm(),
-                        loan.getPurpose(),
-                        loan.getStatus(),
-                        loan.getCreditScore(),
-                        loan.getAppliedDate(),
-                        loan.getDecisionDate(),
-                        loan.getApprovedAmount(),
-                        loan.getPaidAmount(),
-                        loan.getPendingAmount(),
-                        loan.getInterestRate(),
-                        loan.getUser(),
-                        loan.getLoanManager(),
-                        loan.getManager()
-                ))
-                .toList();
-        return ResponseEntity.ok(loanSummaries);
+    public ResponseEntity<?> getAllLoans(LoanListRequest request) {
+        return loanPage(request, null, (filter, limit) -> loanService.getLoanPage(filter, limit).map(this::toLoanSummaryDTO));
     }
 
     @GetMapping("/admin/loans/status/{status}")
-    public ResponseEntity<List<LoanSummaryDTO>> getLoansByStatus(@PathVariable String status) {
-        LoanApplication.Status enumStatus = LoanApplication.Status.valueOf(status.toUpperCase());
-        List<LoanApplication> loans = loanService.getLoansByStatus(enumStatus);
-        List<LoanSummaryDTO> loanSummaries = loans.stream()
-                .map(loan -> new LoanSummaryDTO(
-                        loan.getId(),
-                        loan.getAmount(),
-                        loan.getTerm(),
-                        loan.getPurpose(),
-                        loan.getStatus(),
-                        loan.getCreditScore(),
-                        loan.getAppliedDate(),
-                        loan.getDecisionDate(),
-                        loan.getApprovedAmount(),
-                        loan.getPaidAmount(),
-                        loan.getPendingAmount(),
-                        loan.getInterestRate(),
-                        loan.getUser(),
-                        loan.getLoanManager(),
-                        loan.getManager()
-                ))
-                .toList();
-        return ResponseEntity.ok(loanSummaries);
+    public ResponseEntity<?> getLoansByStatus(@PathVariable String status, LoanListRequest request) {
+        return loanPage(request, status, (filter, limit) -> loanService.getLoanPage(filter, limit).map(this::toLoanSummaryDTO));
+    }
+
+    @PostMapping("/admin/loans/rescore")
+    public ResponseEntity<?> startRescoring() {
+        try {
+            LoanRescoringService.RescoringJob job = loanRescoringService.startJob();
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RuntimeException e) {
+            logger.warn("Could not start re-scoring job: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/admin/loans/rescore")
+    public ResponseEntity<?> getRescoringProgress() {
+        LoanRescoringService.RescoringJob job = loanRescoringService.getCurrentJob();
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
     }
 
     @GetMapping("/admin/documents")
@@ -266,6 +338,64 @@ public class LoanController {
         return ResponseEntity.ok(documents);
     }
 
+    /**
+     * Per-policy document compression counters since startup: bytes saved, files compressed and CPU spent.
+     */
+    @GetMapping("/admin/storage/compression")
+    public ResponseEntity<List<DocumentCompression.PolicyStats>> getCompressionStats() {
+        return ResponseEntity.ok(documentCompression.getStats());
+    }
+
+    /**
+     * Runs a cold storage pass now instead of waiting for the daily one.
+     */
+    @PostMapping("/admin/storage/pack")
+    public ResponseEntity<Map<String, Integer>> packColdDocuments() {
+        return ResponseEntity.ok(Map.of("packed", coldStorageService.pack()));
+    }
+
+    @GetMapping("/admin/export/loans")
+    public ResponseEntity<?> exportLoans(@RequestParam(defaultValue = "ndjson") String format) {
+        return export("loans", format, exportService::exportLoans);
+    }
+
+    @GetMapping("/admin/export/documents")
+    public ResponseEntity<?> exportDocuments(@RequestParam(defaultValue = "ndjson") String format) {
+        return export("documents", format, exportService::exportDocuments);
+    }
+
+    /**
+     * Streams a full export as NDJSON (one object per line) or CSV, row by row from the database cursor.
+     */
+    private ResponseEntity<?> export(String name, String format, ExportWriter exportWriter) {
+        ExportService.Format exportFormat;
+        if ("csv".equalsIgnoreCase(format)) {
+            exportFormat = ExportService.Format.CSV;
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            exportFormat = ExportService.Format.NDJSON;
+        } else {
+            return ResponseEntity.badRequest().body(Map.of("error", "format must be ndjson or csv"));
+        }
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            exportWriter.write(exportFormat, writer);
+            writer.flush();
+        };
+        String extension = exportFormat == ExportService.Format.CSV ? "csv" : "ndjson";
+        MediaType contentType = exportFormat == ExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + extension + "\"")
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface ExportWriter {
+        long write(ExportService.Format format, Writer writer) throws IOException;
+    }
+
     // Loan Manager endpoints
     @PostMapping("/loan-manager/documents/verify/{id}")
     public ResponseEntity<Document> verifyDocument(@PathVariable Long id) {
@@ -279,24 +409,44 @@ public class LoanController {
         return ResponseEntity.ok(document);
     }
 
+    /**
+     * Verifies and rejects many documents at once, e.g. {@code [{"documentId": 1, "decision": "VERIFY"}, ...]}.
+     * Answers with one result per decision, in order; a decision that cannot be applied does not stop the rest.
+     */
+    @PostMapping("/loan-manager/documents/decisions")
+    public ResponseEntity<?> decideDocuments(@RequestBody List<DocumentDecisionRequest> request) {
+        try {
+            List<DocumentService.Decision> decisions = request.stream()
+                    .map(item -> new DocumentService.Decision(item.getDocumentId(), toDocumentStatus(item.getDecision())))
+                    .toList();
+            return ResponseEntity.ok(documentService.decideDocuments(decisions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private static Document.Status toDocumentStatus(String decision) {
+        if ("VERIFY".equalsIgnoreCase(decision)) {
+            return Document.Status.VERIFIED;
+        }
+        if ("REJECT".equalsIgnoreCase(decision)) {
+            return Document.Status.REJECTED;
+        }
+        throw new IllegalArgumentException("Decision must be VERIFY or REJECT, not " + decision);
+    }
+
     @GetMapping("/loan-manager/documents")
-    public ResponseEntity<List<DocumentDTO>> getAllDocumentsForVerification() {
+    public ResponseEntity<?> getAllDocumentsForVerification(WebRequest webRequest) {
+        return ifChanged(webRequest, ChangeVersionService.Collection.DOCUMENTS, this::documentsForVerification);
+    }
+
+    private ResponseEntity<List<DocumentDTO>> documentsForVerification() {
         logger.info("Fetching all documents for verification");
         try {
-            List<Document> documents = documentService.getAllDocuments();
+            List<DocumentRepository.DocumentListing> documents = documentService.getDocumentListings();
             logger.info("Found {} documents in database", documents.size());
             List<DocumentDTO> documentDTOs = documents.stream()
-                    .map(doc -> new DocumentDTO(
-                            doc.getId(),
-                            doc.getUser().getId(),
-                            doc.getLoanApplication() != null ? doc.getLoanApplication().getId() : null,
-                            doc.getDocumentType(),
-                            doc.getFileName(),
-                            doc.getFilePath(),
-                            doc.getContentType(),
-                            doc.getFileSize(),
-                            doc.getStatus()
-                    ))
+                    .map(this::toDocumentDTO)
                     .toList();
             logger.info("Returning {} document DTOs", documentDTOs.size());
             return ResponseEntity.ok(documentDTOs);
@@ -306,52 +456,140 @@ public class LoanController {
         }
     }
 
+    /**
+     * Documents awaiting review (UPLOADED unless another status is asked for), oldest first, a page at a time.
+     */
+    @GetMapping("/loan-manager/documents/queue")
+    public ResponseEntity<?> getDocumentReviewQueue(DocumentQueueRequest request, WebRequest webRequest) {
+        return ifChanged(webRequest, ChangeVersionService.Collection.DOCUMENTS, () -> documentReviewQueue(request));
+    }
+
+    private ResponseEntity<?> documentReviewQueue(DocumentQueueRequest request) {
+        String documentType = request.getDocumentType() == null || request.getDocumentType().isBlank()
+                ? null : request.getDocumentType();
+        Document.Status status;
+        KeysetPage<DocumentDTO> page;
+        try {
+            status = request.getStatus() == null || request.getStatus().isBlank()
+                    ? Document.Status.UPLOADED
+                    : Document.Status.valueOf(request.getStatus().trim().toUpperCase());
+            page = documentService.getReviewQueuePage(status, documentType, request.getUserId(),
+                    request.getCursor(), request.getLimit()).map(this::toDocumentDTO);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TOTAL_ESTIMATE_HEADER, Long.toString(
+                        documentService.estimateReviewQueueSize(status, documentType, request.getUserId())));
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    private DocumentDTO toDocumentDTO(DocumentRepository.DocumentListing doc) {
+        return new DocumentDTO(
+                doc.getId(),
+                doc.getUserId(),
+                doc.getLoanApplicationId(),
+                doc.getDocumentType(),
+                doc.getFileName(),
+                doc.getFilePath(),
+                doc.getContentType(),
+                doc.getFileSize(),
+                doc.getStatus()
+        );
+    }
+
+    /**
+     * Streams a document with Range, If-Range and conditional GET support; see {@link FileRangeWriter}.
+     */
     @GetMapping("/loan-manager/documents/view/{id}")
-    public ResponseEntity<Resource> viewDocument(@PathVariable Long id) {
-        logger.info("Viewing document with ID: {}", id);
+    public void viewDocument(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DocumentService.DocumentContent content;
         try {
-            Document document = documentService.getAllDocuments().stream()
-                    .filter(doc -> doc.getId().equals(id))
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Document not found"));
-            logger.info("Found document: {} (file: {})", document.getId(), document.getFileName());
-
-            Resource resource = documentService.downloadDocument(id);
-            logger.info("Downloaded resource for document: {}", document.getFileName());
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(document.getContentType()))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + document.getFileName() + "\"")
-                    .body(resource);
-        } catch (Exception e) {
-            logger.error("Error viewing document with ID: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            content = documentService.downloadDocument(id);
+        } catch (RuntimeException e) {
+            logger.warn("Cannot serve document {}: {}", id, e.getMessage());
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
         }
+        writeDocumentContent(content, request, response);
+    }
+
+    @GetMapping("/loan-manager/documents/{id}/thumbnail")
+    public void viewDocumentThumbnail(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        viewRendition(id, DocumentService.Rendition.THUMBNAIL, request, response);
+    }
+
+    @GetMapping("/loan-manager/documents/{id}/text")
+    public void viewDocumentText(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        viewRendition(id, DocumentService.Rendition.TEXT, request, response);
+    }
+
+    private void viewRendition(Long id, DocumentService.Rendition rendition, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        DocumentService.DocumentContent content;
+        try {
+            content = documentService.downloadRendition(id, rendition);
+        } catch (RuntimeException e) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        writeDocumentContent(content, request, response);
+    }
+
+    private void writeDocumentContent(DocumentService.DocumentContent content, HttpServletRequest request,
+                                      HttpServletResponse response) throws IOException {
+        String contentType = content.getContentType() != null ? content.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                .filename(content.getFileName(), StandardCharsets.UTF_8).build().toString());
+        if (content.getContentEncoding() == null) {
+            FileRangeWriter.write(request, response, content.getFile(), content.getOffset(), content.getLength(),
+                    content.getETag(), content.getLastModified(), content.isImmutable());
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsEncoding(request, content.getContentEncoding())) {
+            // Stored compressed bytes go out as they are, still with sendfile and ranges
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, content.getContentEncoding());
+            documentCompression.recordPassThrough(contentType, content.getLength());
+            FileRangeWriter.write(request, response, content.getFile(), content.getOffset(), content.getLength(),
+                    content.getEncodedETag(), content.getLastModified(), content.isImmutable());
+        } else {
+            FileRangeWriter.writeStream(request, response, () -> documentService.openDecoded(content),
+                    content.getDecodedLength(), content.getETag(), content.getLastModified(), content.isImmutable());
+        }
+    }
+
+    // Whether Accept-Encoding lists the coding, or *, without q=0
+    private static boolean acceptsEncoding(HttpServletRequest request, String encoding) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) {
+            return false;
+        }
+        for (String item : header.split(",")) {
+            String[] parts = item.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase(encoding) && !coding.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
     }
 
     @GetMapping("/loan-manager/loans")
-    public ResponseEntity<List<LoanManagerDTO>> getLoansForVerification() {
-        List<LoanApplication> loans = loanService.getAllLoans();
-        List<LoanManagerDTO> loanSummaries = loans.stream()
-                .map(loan -> new LoanManagerDTO(
-                        loan.getId(),
-                        loan.getAmount(),
-                        loan.getTerm(),
-                        loan.getPurpose(),
-                        loan.getStatus(),
-                        loan.getCreditScore(),
-                        loan.getAppliedDate(),
-                        loan.getDecisionDate(),
-                        loan.getApprovedAmount(),
-                        loan.getPaidAmount(),
-                        loan.getPendingAmount(),
-                        loan.getInterestRate(),
-                        loan.getUser().getId(),
-                        loan.getUser().getUsername(),
-                        loan.getUser().getEmail()
-                ))
-                .toList();
-        return ResponseEntity.ok(loanSummaries);
+    public ResponseEntity<?> getLoansForVerification(LoanListRequest request, WebRequest webRequest) {
+        return ifChanged(webRequest, ChangeVersionService.Collection.LOANS, () ->
+                loanPage(request, null, (filter, limit) -> loanService.getLoanListingPage(filter, limit).map(this::toLoanManagerDTO)));
     }
 
     @PostMapping("/loan-manager/loans/verify/{id}")
@@ -372,11 +610,15 @@ public class LoanController {
 
     // Manager endpoints
     @PostMapping("/manager/loans/approve/{id}")
-    public ResponseEntity<LoanApplication> approveLoan(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> approveLoan(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
         User manager = userRepository.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        LoanApplication application = loanService.approveLoan(id, manager);
-        return ResponseEntity.ok(application);
+        try {
+            return ResponseEntity.ok(loanService.approveLoan(id, manager));
+        } catch (IllegalArgumentException e) {
+            // A stored amount or term the repayment schedule cannot be built from
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
     }
 
     @PostMapping("/manager/loans/reject/{id}")
@@ -388,54 +630,146 @@ public class LoanController {
     }
 
     @GetMapping("/manager/loans")
-    public ResponseEntity<List<LoanManagerDTO>> getLoansForApproval() {
-        List<LoanApplication> loans = loanService.getAllLoans();
-        List<LoanManagerDTO> loanSummaries = loans.stream()
-                .map(loan -> new LoanManagerDTO(
-                        loan.getId(),
-                        loan.getAmount(),
-                        loan.getTerm(),
-                        loan.getPurpose(),
-                        loan.getStatus(),
-                        loan.getCreditScore(),
-                        loan.getAppliedDate(),
-                        loan.getDecisionDate(),
-                        loan.getApprovedAmount(),
-                        loan.getPaidAmount(),
-                        loan.getPendingAmount(),
-                        loan.getInterestRate(),
-                        loan.getUser().getId(),
-                        loan.getUser().getUsername(),
-                        loan.getUser().getEmail()
-                ))
-                .toList();
-        return ResponseEntity.ok(loanSummaries);
+    public ResponseEntity<?> getLoansForApproval(LoanListRequest request, WebRequest webRequest) {
+        return ifChanged(webRequest, ChangeVersionService.Collection.LOANS, () ->
+                loanPage(request, null, (filter, limit) -> loanService.getLoanListingPage(filter, limit).map(this::toLoanManagerDTO)));
     }
 
     @GetMapping("/manager/loans/status/{status}")
-    public ResponseEntity<List<LoanManagerDTO>> getLoansByStatusForApproval(@PathVariable String status) {
-        LoanApplication.Status enumStatus = LoanApplication.Status.valueOf(status.toUpperCase());
-        List<LoanApplication> loans = loanService.getLoansByStatus(enumStatus);
-        List<LoanManagerDTO> loanSummaries = loans.stream()
-                .map(loan -> new LoanManagerDTO(
-                        loan.getId(),
-                        loan.getAmount(),
-                        loan.getTerm(),
-                        loan.getPurpose(),
-                        loan.getStatus(),
-                        loan.getCreditScore(),
-                        loan.getAppliedDate(),
-                        loan.getDecisionDate(),
-                        loan.getApprovedAmount(),
-                        loan.getPaidAmount(),
-                        loan.getPendingAmount(),
-                        loan.getInterestRate(),
-                        loan.getUser().getId(),
-                        loan.getUser().getUsername(),
-                        loan.getUser().getEmail()
-                ))
-                .toList();
-        return ResponseEntity.ok(loanSummaries);
+    public ResponseEntity<?> getLoansByStatusForApproval(@PathVariable String status, LoanListRequest request,
+                                                         WebRequest webRequest) {
+        return ifChanged(webRequest, ChangeVersionService.Collection.LOANS, () ->
+                loanPage(request, status, (filter, limit) -> loanService.getLoanListingPage(filter, limit).map(this::toLoanManagerDTO)));
+    }
+
+    /**
+     * Answers a matching If-None-Match with 304 from the in-memory change version, before any query runs.
+     * The version is read before the listing, so a change committed meanwhile only makes the tag older.
+     */
+    private ResponseEntity<?> ifChanged(WebRequest webRequest, ChangeVersionService.Collection collection,
+                                        Supplier<ResponseEntity<?>> listing) {
+        String eTag = changeVersionService.getETag(collection);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        ResponseEntity<?> response = listing.get();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        // no-cache rather than the security default of no-store, so browsers keep the body and revalidate
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response.getBody());
+    }
+
+    private <T> ResponseEntity<?> loanPage(LoanListRequest request, String status,
+                                           BiFunction<LoanApplicationFilter, Integer, KeysetPage<T>> query) {
+        KeysetPage<T> page;
+        try {
+            LoanApplicationFilter filter = request.toFilter();
+            if (status != null) {
+                filter.setStatus(LoanApplication.Status.valueOf(status.toUpperCase()));
+            }
+            page = query.apply(filter, request.getLimit());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    private LoanSummaryDTO toLoanSummaryDTO(LoanApplication loan) {
+        return new LoanSummaryDTO(
+                loan.getId(),
+                loan.getAmount(),
+                loan.getTerm(),
+                loan.getPurpose(),
+                loan.getStatus(),
+                loan.getCreditScore(),
+                loan.getAppliedDate(),
+                loan.getDecisionDate(),
+                loan.getApprovedAmount(),
+                loan.getPaidAmount(),
+                loan.getPendingAmount(),
+                loan.getInterestRate(),
+                UserRef.of(loan.getUser()),
+                UserRef.of(loan.getLoanManager()),
+                UserRef.of(loan.getManager())
+        );
+    }
+
+    private LoanManagerDTO toLoanManagerDTO(LoanListing loan) {
+        return new LoanManagerDTO(
+                loan.getId(),
+                loan.getAmount(),
+                loan.getTerm(),
+                loan.getPurpose(),
+                loan.getStatus(),
+                loan.getCreditScore(),
+                loan.getAppliedDate(),
+                loan.getDecisionDate(),
+                loan.getApprovedAmount(),
+                loan.getPaidAmount(),
+                loan.getPendingAmount(),
+                loan.getInterestRate(),
+                loan.getUserId(),
+                loan.getUsername(),
+                loan.getUserEmail()
+        );
+    }
+
+    @GetMapping("/manager/loans/{id}/schedule")
+    public ResponseEntity<?> getRepaymentSchedule(@PathVariable Long id, @RequestParam(defaultValue = "json") String format) {
+        Optional<LoanApplication> application = loanService.findLoan(id);
+        if (application.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Application not found"));
+        }
+        return repaymentSchedule(application.get(), format);
+    }
+
+    /**
+     * Streams the schedule straight from its arrays, as JSON or as CSV with format=csv.
+     */
+    private ResponseEntity<?> repaymentSchedule(LoanApplication application, String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"json".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "format must be json or csv"));
+        }
+        AmortizationSchedule schedule;
+        try {
+            schedule = loanService.getRepaymentSchedule(application);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                schedule.writeCsv(writer);
+            } else {
+                schedule.writeJson(writer);
+            }
+            writer.flush();
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (csv) {
+            response.contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"loan-" + application.getId() + "-schedule.csv\"");
+        } else {
+            response.contentType(MediaType.APPLICATION_JSON);
+        }
+        return response.body(body);
+    }
+
+    // Approved, paid and pending totals and average rate by purpose, credit score band and status
+    @GetMapping("/manager/analytics/portfolio")
+    public ResponseEntity<PortfolioAnalyticsService.PortfolioExposure> getPortfolioExposure() {
+        return ResponseEntity.ok(portfolioAnalyticsService.getExposure());
     }
 
     // Interest Rate Management endpoints
@@ -447,15 +781,7 @@ public class LoanController {
 
     @PostMapping("/manager/interest-rates")
     public ResponseEntity<InterestRate> updateInterestRate(@RequestBody InterestRateUpdateRequest request) {
-        Optional<InterestRate> existingRate = interestRateRepository.findByPurpose(request.getPurpose().toLowerCase());
-        InterestRate rate;
-        if (existingRate.isPresent()) {
-            rate = existingRate.get();
-            rate.setRate(request.getRate());
-        } else {
-            rate = new InterestRate(request.getPurpose().toLowerCase(), request.getRate());
-        }
-        InterestRate saved = interestRateRepository.save(rate);
+        InterestRate saved = interestRateCache.updateRate(request.getPurpose(), request.getRate());
         return ResponseEntity.ok(saved);
     }
 
@@ -473,6 +799,126 @@ public class LoanController {
         public void setPurpose(String purpose) { this.purpose = purpose; }
     }
 
+    public static class LoanListRequest {
+        private String status;
+        private String purpose;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime appliedFrom;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime appliedTo;
+        private Integer minCreditScore;
+        private Integer maxCreditScore;
+        private String cursor;
+        private Integer limit;
+
+        LoanApplicationFilter toFilter() {
+            LoanApplicationFilter filter = new LoanApplicationFilter();
+            if (status != null && !status.isBlank()) {
+                filter.setStatus(LoanApplication.Status.valueOf(status.trim().toUpperCase()));
+            }
+            if (purpose != null && !purpose.isBlank()) {
+                filter.setPurpose(purpose);
+            }
+            filter.setAppliedFrom(appliedFrom);
+            filter.setAppliedTo(appliedTo);
+            filter.setMinCreditScore(minCreditScore);
+            filter.setMaxCreditScore(maxCreditScore);
+            filter.setCursor(cursor);
+            return filter;
+        }
+
+        // getters and setters
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public String getPurpose() { return purpose; }
+        public void setPurpose(String purpose) { this.purpose = purpose; }
+        public LocalDateTime getAppliedFrom() { return appliedFrom; }
+        public void setAppliedFrom(LocalDateTime appliedFrom) { this.appliedFrom = appliedFrom; }
+        public LocalDateTime getAppliedTo() { return appliedTo; }
+        public void setAppliedTo(LocalDateTime appliedTo) { this.appliedTo = appliedTo; }
+        public Integer getMinCreditScore() { return minCreditScore; }
+        public void setMinCreditScore(Integer minCreditScore) { this.minCreditScore = minCreditScore; }
+        public Integer getMaxCreditScore() { return maxCreditScore; }
+        public void setMaxCreditScore(Integer maxCreditScore) { this.maxCreditScore = maxCreditScore; }
+        public String getCursor() { return cursor; }
+        public void setCursor(String cursor) { this.cursor = cursor; }
+        public Integer getLimit() { return limit; }
+        public void setLimit(Integer limit) { this.limit = limit; }
+    }
+
+    public static class DocumentQueueRequest {
+        private String status;
+        private String documentType;
+        private Long userId;
+        private String cursor;
+        private Integer limit;
+
+        // getters and setters
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public String getDocumentType() { return documentType; }
+        public void setDocumentType(String documentType) { this.documentType = documentType; }
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+        public String getCursor() { return cursor; }
+        public void setCursor(String cursor) { this.cursor = cursor; }
+        public Integer getLimit() { return limit; }
+        public void setLimit(Integer limit) { this.limit = limit; }
+    }
+
+    public static class DocumentDecisionRequest {
+        private Long documentId;
+        private String decision;
+
+        // getters and setters
+        public Long getDocumentId() { return documentId; }
+        public void setDocumentId(Long documentId) { this.documentId = documentId; }
+        public String getDecision() { return decision; }
+        public void setDecision(String decision) { this.decision = decision; }
+    }
+
+    public static class LoanQuoteRequest {
+        private List<LoanApplicationRequest> candidates = new ArrayList<>();
+        private List<BigDecimal> amounts = new ArrayList<>();
+        private List<Integer> terms = new ArrayList<>();
+        private List<String> purposes = new ArrayList<>();
+
+        List<LoanQuoteService.Candidate> toCandidates() {
+            long gridSize = (long) amounts.size() * terms.size() * purposes.size();
+            if (candidates.size() + gridSize > LoanQuoteService.MAX_CANDIDATES) {
+                throw new RuntimeException("At most " + LoanQuoteService.MAX_CANDIDATES + " loan candidates can be quoted at once");
+            }
+            List<LoanQuoteService.Candidate> expanded = new ArrayList<>((int) (candidates.size() + gridSize));
+            for (LoanApplicationRequest candidate : candidates) {
+                if (candidate.getTerm() == null) {
+                    throw new RuntimeException("Every candidate needs a term");
+                }
+                expanded.add(new LoanQuoteService.Candidate(candidate.getAmount(), candidate.getTerm(), candidate.getPurpose()));
+            }
+            for (BigDecimal amount : amounts) {
+                for (Integer term : terms) {
+                    for (String purpose : purposes) {
+                        if (term == null) {
+                            throw new RuntimeException("Terms must not be null");
+                        }
+                        expanded.add(new LoanQuoteService.Candidate(amount, term, purpose));
+                    }
+                }
+            }
+            return expanded;
+        }
+
+        // getters and setters
+        public List<LoanApplicationRequest> getCandidates() { return candidates; }
+        public void setCandidates(List<LoanApplicationRequest> candidates) { this.candidates = candidates; }
+        public List<BigDecimal> getAmounts() { return amounts; }
+        public void setAmounts(List<BigDecimal> amounts) { this.amounts = amounts; }
+        public List<Integer> getTerms() { return terms; }
+        public void setTerms(List<Integer> terms) { this.terms = terms; }
+        public List<String> getPurposes() { return purposes; }
+        public void setPurposes(List<String> purposes) { this.purposes = purposes; }
+    }
+
     public static class LoanSummaryDTO {
         private Long id;
         private BigDecimal amount;
@@ -486,14 +932,14 @@ public class LoanController {
         private BigDecimal paidAmount;
         private BigDecimal pendingAmount;
         private BigDecimal interestRate;
-        private User user;
-        private User loanManager;
-        private User manager;
+        private UserRef user;
+        private UserRef loanManager;
+        private UserRef manager;
 
         public LoanSummaryDTO(Long id, BigDecimal amount, Integer term, String purpose,
                             LoanApplication.Status status, Integer creditScore, LocalDateTime appliedDate,
                             LocalDateTime decisionDate, BigDecimal approvedAmount, BigDecimal paidAmount,
-                            BigDecimal pendingAmount, BigDecimal interestRate, User user, User loanManager, User manager) {
+                            BigDecimal pendingAmount, BigDecimal interestRate, UserRef user, UserRef loanManager, UserRef manager) {
             this.id = id;
             this.amount = amount;
             this.term = term;
@@ -536,12 +982,39 @@ public class LoanController {
         public void setPendingAmount(BigDecimal pendingAmount) { this.pendingAmount = pendingAmount; }
         public BigDecimal getInterestRate() { return interestRate; }
         public void setInterestRate(BigDecimal interestRate) { this.interestRate = interestRate; }
-        public User getUser() { return user; }
-        public void setUser(User user) { this.user = user; }
-        public User getLoanManager() { return loanManager; }
-        public void setLoanManager(User loanManager) { this.loanManager = loanManager; }
-        public User getManager() { return manager; }
-        public void setManager(User manager) { this.manager = manager; }
+        public UserRef getUser() { return user; }
+        public void setUser(UserRef user) { this.user = user; }
+        public UserRef getLoanManager() { return loanManager; }
+        public void setLoanManager(UserRef loanManager) { this.loanManager = loanManager; }
+        public UserRef getManager() { return manager; }
+        public void setManager(UserRef manager) { this.manager = manager; }
+    }
+
+    /**
+     * The identifying fields of a user embedded in a loan row, instead of the whole user record.
+     */
+    public static class UserRef {
+        private Long id;
+        private String username;
+        private String email;
+
+        public UserRef(Long id, String username, String email) {
+            this.id = id;
+            this.username = username;
+            this.email = email;
+        }
+
+        static UserRef of(User user) {
+            return user != null ? new UserRef(user.getId(), user.getUsername(), user.getEmail()) : null;
+        }
+
+        // getters and setters
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
     }
 
     public static class DocumentDTO {
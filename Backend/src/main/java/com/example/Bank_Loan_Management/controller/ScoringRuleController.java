@@ -0,0 +1,140 @@
+package com.example.Bank_Loan_Management.controller;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+import com.example.Bank_Loan_Management.entity.ScoringRule;
+import com.example.Bank_Loan_Management.entity.ScoringRuleSet;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.service.CreditScoringEngine;
+import com.example.Bank_Loan_Management.service.CreditScoringService;
+import com.example.Bank_Loan_Management.service.ScoringRuleService;
+
+@RestController
+@RequestMapping("/api/admin/scoring-rules")
+public class ScoringRuleController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringRuleController.class);
+
+    private final ScoringRuleService scoringRuleService;
+    private final CreditScoringService creditScoringService;
+    private final LoanApplicationRepository loanApplicationRepository;
+
+    public ScoringRuleController(ScoringRuleService scoringRuleService, CreditScoringService creditScoringService,
+                                 LoanApplicationRepository loanApplicationRepository) {
+        this.scoringRuleService = scoringRuleService;
+        this.creditScoringService = creditScoringService;
+        this.loanApplicationRepository = loanApplicationRepository;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ScoringRuleSet>> getRuleSets() {
+        return ResponseEntity.ok(scoringRuleService.getRuleSets());
+    }
+
+    @GetMapping("/active")
+    public ResponseEntity<?> getActiveVersion() {
+        return ResponseEntity.ok(Map.of("version", scoringRuleService.getActiveEngine().getVersion()));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createRuleSet(@RequestBody RuleSetRequest request) {
+        try {
+            List<ScoringRule> rules = new ArrayList<>();
+            for (RuleRequest ruleRequest : request.getRules()) {
+                ScoringRule rule = new ScoringRule();
+                rule.setFactor(ScoringRule.Factor.valueOf(ruleRequest.getFactor().toUpperCase()));
+                rule.setUpperBound(ruleRequest.getUpperBound());
+                rule.setKeyword(ruleRequest.getKeyword());
+                rule.setPoints(ruleRequest.getPoints());
+                rules.add(rule);
+            }
+            ScoringRuleSet saved = scoringRuleService.createRuleSet(request.getDescription(), rules);
+            return ResponseEntity.ok(saved);
+        } catch (RuntimeException e) {
+            logger.warn("Rejected scoring rule set: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @PostMapping("/{version}/activate")
+    public ResponseEntity<?> activate(@PathVariable Integer version) {
+        try {
+            return ResponseEntity.ok(scoringRuleService.activate(version));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * Re-scores an application with the rule set version recorded on it and with the active version,
+     * using the borrower's current profile and loan history.
+     */
+    @GetMapping("/replay/{applicationId}")
+    public ResponseEntity<?> replay(@PathVariable Long applicationId) {
+        try {
+            LoanApplication application = loanApplicationRepository.findById(applicationId)
+                    .orElseThrow(() -> new RuntimeException("Application not found"));
+            // Applications scored before rule sets were versioned used the built-in rules
+            int recordedVersion = application.getScoringRuleVersion() != null
+                    ? application.getScoringRuleVersion() : CreditScoringEngine.defaultEngine().getVersion();
+            CreditScoringEngine recordedEngine = scoringRuleService.getEngine(recordedVersion);
+            CreditScoringEngine activeEngine = scoringRuleService.getActiveEngine();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("applicationId", application.getId());
+            response.put("recordedScore", application.getCreditScore());
+            response.put("recordedVersion", recordedVersion);
+            response.put("replayedScore", creditScoringService.calculateCreditScore(recordedEngine,
+                    application.getUser(), application.getAmount(), application.getTerm(), application.getPurpose()));
+            response.put("activeVersion", activeEngine.getVersion());
+            response.put("activeScore", creditScoringService.calculateCreditScore(activeEngine,
+                    application.getUser(), application.getAmount(), application.getTerm(), application.getPurpose()));
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    public static class RuleSetRequest {
+        private String description;
+        private List<RuleRequest> rules = new ArrayList<>();
+
+        // getters and setters
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+        public List<RuleRequest> getRules() { return rules; }
+        public void setRules(List<RuleRequest> rules) { this.rules = rules; }
+    }
+
+    public static class RuleRequest {
+        private String factor;
+        private BigDecimal upperBound;
+        private String keyword;
+        private int points;
+
+        // getters and setters
+        public String getFactor() { return factor; }
+        public void setFactor(String factor) { this.factor = factor; }
+        public BigDecimal getUpperBound() { return upperBound; }
+        public void setUpperBound(BigDecimal upperBound) { this.upperBound = upperBound; }
+        public String getKeyword() { return keyword; }
+        public void setKeyword(String keyword) { this.keyword = keyword; }
+        public int getPoints() { return points; }
+        public void setPoints(int points) { this.points = points; }
+    }
+}
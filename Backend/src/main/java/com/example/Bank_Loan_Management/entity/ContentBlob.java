@@ -0,0 +1,49 @@
+package com.example.Bank_Loan_Management.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stored file in the content-addressed document store, shared by every document with the same bytes.
+ * Rows are inserted by ContentStore when it first writes the content, not through this entity. Nothing
+ * counts the documents sharing a blob; cold storage finds them by hash when it needs to.
+ */
+@Entity
+@Table(name = "content_blobs", indexes = {
+        // Cold storage finds what it packed on its last pass without reading every blob
+        @Index(name = "idx_content_blobs_pack_state", columnList = "pack_state")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentBlob {
+
+    // Lower-case hex SHA-256 of the content
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    // Of the original content
+    @Column(nullable = false)
+    private Long size;
+
+    // "gzip" when stored compressed
+    @Column(length = 16)
+    private String encoding;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Null while only in the loose store, PACKING once appended to a pack segment, PACKED once the loose
+    // copies are deleted; set by ColdStorageService
+    @Column(length = 8)
+    private String packState;
+}
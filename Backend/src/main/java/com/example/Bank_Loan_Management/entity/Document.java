@@ -6,9 +6,11 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -17,7 +19,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+        // Review queue: one status, oldest first; optionally of one type or one borrower, which the paging
+        // and the queue size count then read from their own index ranges
+        @Index(name = "idx_documents_status_id", columnList = "status, id"),
+        @Index(name = "idx_documents_status_type_id", columnList = "status, document_type, id"),
+        @Index(name = "idx_documents_status_user_id", columnList = "status, user_id, id"),
+        // Every document sharing stored content, when cold storage checks whether all of them are cold
+        @Index(name = "idx_documents_content_hash", columnList = "content_hash")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,7 +37,7 @@ public class Document {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "loan_application_id")
     private LoanApplication loanApplication;
 
@@ -36,7 +46,7 @@ public class Document {
         return loanApplication;
     }
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
     private User user;
@@ -47,15 +57,31 @@ public class Document {
     @Column(nullable = false)
     private String fileName;
 
-    @Column(nullable = false)
+    // Location of documents uploaded before the content store; new documents have only a content hash
     private String filePath;
 
+    // SHA-256 of the bytes in the content store, see ContentStore
+    @Column(length = 64)
+    private String contentHash;
+
     @Column(nullable = false)
     private String contentType;
 
     @Column(nullable = false)
     private Long fileSize;
 
+    // How the content store holds the bytes: "gzip", or null when stored as uploaded
+    @Column(length = 16)
+    private String contentEncoding;
+
+    // Filled in by DocumentProcessingService after upload
+    private String detectedContentType;
+    private Integer pageCount;
+    @Column(length = 64)
+    private String thumbnailHash;
+    @Column(length = 64)
+    private String textHash;
+
     @Enumerated(EnumType.STRING)
     private Status status;
 
@@ -64,7 +90,8 @@ public class Document {
         return loanApplication != null ? loanApplication.getId() : null;
     }
 
+    // PROCESSING until the post-upload pipeline has run, then UPLOADED (ready for review)
     public enum Status {
-        UPLOADED, VERIFIED, REJECTED
+        PROCESSING, PROCESSING_FAILED, UPLOADED, VERIFIED, REJECTED
     }
 }
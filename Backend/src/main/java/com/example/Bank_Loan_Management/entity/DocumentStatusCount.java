@@ -0,0 +1,43 @@
+package com.example.Bank_Loan_Management.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How many documents of one type are in one status. Kept up to date by DocumentVerificationCounts in the
+ * same transactions that move documents between statuses, so the review queue's size is read from a few
+ * rows instead of counting the queue.
+ */
+@Entity
+@Table(name = "document_status_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_document_status_counts_status_type", columnNames = {"status", "document_type"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentStatusCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Document.Status status;
+
+    @Column(nullable = false)
+    private String documentType;
+
+    @Column(nullable = false)
+    private Long documents;
+}
@@ -0,0 +1,43 @@
+package com.example.Bank_Loan_Management.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How many of a borrower's documents of one type exist and how many of them are verified. Kept up to date
+ * by DocumentVerificationCounts with single UPDATE statements as documents are uploaded and decided, so
+ * the "every type has a verified document" check never reads the documents themselves.
+ */
+@Entity
+@Table(name = "document_type_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_document_type_counts_user_type", columnNames = {"user_id", "document_type"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentTypeCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String documentType;
+
+    @Column(nullable = false)
+    private Long documents;
+
+    @Column(nullable = false)
+    private Long verified;
+}
@@ -4,15 +4,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.UpdateTimestamp;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -22,7 +26,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "loan_applications")
+@Table(name = "loan_applications", indexes = {
+        // Keyset pagination of the loan listings, newest first, optionally within one status
+        @Index(name = "idx_loan_applications_applied", columnList = "applied_date, id"),
+        @Index(name = "idx_loan_applications_status_applied", columnList = "status, applied_date, id"),
+        // Cold storage only looks at loans changed since its last pass
+        @Index(name = "idx_loan_applications_last_modified", columnList = "last_modified")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,15 +42,16 @@ public class LoanApplication {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // Lazy: listings pick what they need with fetch joins or projections
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "loan_manager_id")
     private User loanManager;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
     private User manager;
 
@@ -65,6 +76,10 @@ public class LoanApplication {
 
     private Integer creditScore;
 
+    // Version of the scoring rule set that produced creditScore
+    private Integer scoringRuleVersion;
+
+    @Column(nullable = false)
     private LocalDateTime appliedDate;
 
     private LocalDateTime decisionDate;
@@ -78,6 +93,11 @@ public class LoanApplication {
     @Column(precision = 5, scale = 2)
     private BigDecimal interestRate;
 
+    // Set on every entity save; bulk updates skip it, but none of them can make a loan's documents cold
+    @UpdateTimestamp
+    @JsonIgnore
+    private LocalDateTime lastModified;
+
     public enum Status {
         APPLIED, VERIFIED, APPROVED, REJECTED
     }
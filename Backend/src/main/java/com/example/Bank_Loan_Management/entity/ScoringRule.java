@@ -0,0 +1,64 @@
+package com.example.Bank_Loan_Management.entity;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One row of a scoring rule set. Band factors use {@code upperBound} (inclusive) and keyword factors use
+ * {@code keyword}; a row with neither is the "otherwise" score for its factor. Loan history factors hold a
+ * single row with the points per matching loan.
+ */
+@Entity
+@Table(name = "scoring_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "rule_set_id", nullable = false)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ScoringRuleSet ruleSet;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Factor factor;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal upperBound;
+
+    private String keyword;
+
+    @Column(nullable = false)
+    private int points;
+
+    public enum Factor {
+        INCOME, DEBT_TO_INCOME, EMPLOYMENT_STATUS, AGE, MARITAL_STATUS, CREDIT_HISTORY_LENGTH,
+        LATE_PAYMENTS, CREDIT_UTILIZATION, CREDIT_INQUIRIES, CREDIT_MIX,
+        LOAN_FULLY_PAID, LOAN_ON_TIME, LOAN_DEFAULTED, LOAN_REJECTED,
+        AMOUNT, TERM, PURPOSE
+    }
+}
@@ -3,6 +3,9 @@ package com.example.Bank_Loan_Management.entity;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -17,6 +20,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "users")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Lazy proxies serialize as the plain user
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,6 +57,63 @@ public class User {
     private Integer numberOfCreditInquiries;
     private String creditMix; // e.g., "mortgage,credit_card,auto"
 
+    // Credit score points from the profile fields above, computed by scoring rule set profilePointsVersion.
+    // Cleared whenever one of those fields changes, and recomputed the next time the user is scored.
+    @JsonIgnore
+    private Integer profilePoints;
+    @JsonIgnore
+    private Integer profilePointsVersion;
+
+    public void setAnnualIncome(BigDecimal annualIncome) {
+        this.annualIncome = annualIncome;
+        clearProfilePoints();
+    }
+
+    public void setEmploymentStatus(String employmentStatus) {
+        this.employmentStatus = employmentStatus;
+        clearProfilePoints();
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+        clearProfilePoints();
+    }
+
+    public void setMaritalStatus(String maritalStatus) {
+        this.maritalStatus = maritalStatus;
+        clearProfilePoints();
+    }
+
+    public void setCreditHistoryLength(Integer creditHistoryLength) {
+        this.creditHistoryLength = creditHistoryLength;
+        clearProfilePoints();
+    }
+
+    public void setNumberOfLatePayments(Integer numberOfLatePayments) {
+        this.numberOfLatePayments = numberOfLatePayments;
+        clearProfilePoints();
+    }
+
+    public void setCreditUtilization(BigDecimal creditUtilization) {
+        this.creditUtilization = creditUtilization;
+        clearProfilePoints();
+    }
+
+    public void setNumberOfCreditInquiries(Integer numberOfCreditInquiries) {
+        this.numberOfCreditInquiries = numberOfCreditInquiries;
+        clearProfilePoints();
+    }
+
+    public void setCreditMix(String creditMix) {
+        this.creditMix = creditMix;
+        clearProfilePoints();
+    }
+
+    private void clearProfilePoints() {
+        this.profilePoints = null;
+        this.profilePointsVersion = null;
+    }
+
     public enum Role {
         USER, LOAN_MANAGER, MANAGER, ADMIN
     }
@@ -0,0 +1,40 @@
+package com.example.Bank_Loan_Management.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.Bank_Loan_Management.entity.DocumentProcessingJob;
+
+@Repository
+public interface DocumentProcessingJobRepository extends JpaRepository<DocumentProcessingJob, Long> {
+
+    @Query("SELECT j.id FROM DocumentProcessingJob j WHERE j.status = :status AND j.nextAttemptAt <= :now " +
+           "ORDER BY j.nextAttemptAt, j.id")
+    List<Long> findDueIds(@Param("status") DocumentProcessingJob.Status status, @Param("now") LocalDateTime now,
+                          Limit limit);
+
+    /**
+     * Moves a job from one status to another; 0 means it was no longer in the expected status.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentProcessingJob j SET j.status = :to WHERE j.id = :id AND j.status = :from")
+    int transition(@Param("id") Long id, @Param("from") DocumentProcessingJob.Status from,
+                   @Param("to") DocumentProcessingJob.Status to);
+
+    /**
+     * Returns jobs left RUNNING by a previous process to the queue.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentProcessingJob j SET j.status = :to WHERE j.status = :from")
+    int transitionAll(@Param("from") DocumentProcessingJob.Status from, @Param("to") DocumentProcessingJob.Status to);
+}
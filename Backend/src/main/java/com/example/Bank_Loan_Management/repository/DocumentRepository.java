@@ -1,8 +1,11 @@
 package com.example.Bank_Loan_Management.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,6 +15,11 @@ import com.example.Bank_Loan_Management.entity.User;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
+    String LISTING_SELECT =
+            "SELECT d.id AS id, d.user.id AS userId, la.id AS loanApplicationId, d.documentType AS documentType, " +
+            "d.fileName AS fileName, d.filePath AS filePath, d.contentType AS contentType, d.fileSize AS fileSize, " +
+            "d.status AS status FROM Document d LEFT JOIN d.loanApplication la ";
+
     List<Document> findByLoanApplicationId(Long loanApplicationId);
     List<Document> findByLoanApplicationIdAndStatus(Long loanApplicationId, Document.Status status);
 
@@ -19,4 +27,91 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     List<Document> findByUser(@Param("user") User user);
 
     List<Document> findByUserIdAndLoanApplicationIsNull(Long userId);
+
+    @Query(LISTING_SELECT + "ORDER BY d.id")
+    List<DocumentListing> findAllListings();
+
+    // The review queue has one query per filter combination rather than "(:x IS NULL OR ...)" predicates,
+    // so each gets a plan on the index that matches it: (status, id), (status, document_type, id) or
+    // (status, user_id, id).
+
+    /**
+     * Documents in one status after the given id, oldest first.
+     */
+    @Query(LISTING_SELECT + "WHERE d.status = :status AND d.id > :afterId ORDER BY d.id")
+    List<DocumentListing> findReviewQueue(@Param("status") Document.Status status, @Param("afterId") Long afterId,
+                                          Limit limit);
+
+    @Query(LISTING_SELECT + "WHERE d.status = :status AND d.documentType = :documentType AND d.id > :afterId " +
+           "ORDER BY d.id")
+    List<DocumentListing> findReviewQueueByType(@Param("status") Document.Status status,
+                                                @Param("documentType") String documentType,
+                                                @Param("afterId") Long afterId, Limit limit);
+
+    @Query(LISTING_SELECT + "WHERE d.status = :status AND d.user.id = :userId AND d.id > :afterId ORDER BY d.id")
+    List<DocumentListing> findReviewQueueByUser(@Param("status") Document.Status status, @Param("userId") Long userId,
+                                                @Param("afterId") Long afterId, Limit limit);
+
+    @Query(LISTING_SELECT + "WHERE d.status = :status AND d.user.id = :userId AND d.documentType = :documentType " +
+           "AND d.id > :afterId ORDER BY d.id")
+    List<DocumentListing> findReviewQueueByUserAndType(@Param("status") Document.Status status,
+                                                       @Param("userId") Long userId,
+                                                       @Param("documentType") String documentType,
+                                                       @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT COUNT(d) FROM Document d WHERE d.status = :status AND d.user.id = :userId")
+    long countBorrowerReviewQueue(@Param("status") Document.Status status, @Param("userId") Long userId);
+
+    @Query("SELECT COUNT(d) FROM Document d WHERE d.status = :status AND d.user.id = :userId " +
+           "AND d.documentType = :documentType")
+    long countBorrowerReviewQueueByType(@Param("status") Document.Status status, @Param("userId") Long userId,
+                                        @Param("documentType") String documentType);
+
+    @Query("SELECT d.id AS id, d.user.id AS userId, d.documentType AS documentType, d.status AS status " +
+           "FROM Document d WHERE d.id IN :ids")
+    List<DocumentState> findStates(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Records what post-upload processing found, leaving the status to {@link #transition}.
+     */
+    @Modifying
+    @Query("UPDATE Document d SET d.detectedContentType = :detectedContentType, d.pageCount = :pageCount, " +
+           "d.thumbnailHash = :thumbnailHash, d.textHash = :textHash WHERE d.id = :id")
+    int recordAnalysis(@Param("id") Long id, @Param("detectedContentType") String detectedContentType,
+                       @Param("pageCount") Integer pageCount, @Param("thumbnailHash") String thumbnailHash,
+                       @Param("textHash") String textHash);
+
+    /**
+     * Moves a document between statuses only if nobody else changed its status first.
+     *
+     * @return 1 if the document was in {@code from}, otherwise 0
+     */
+    @Modifying
+    @Query("UPDATE Document d SET d.status = :to WHERE d.id = :id AND d.status = :from")
+    int transition(@Param("id") Long id, @Param("from") Document.Status from, @Param("to") Document.Status to);
+
+    /**
+     * The document columns shown in the verification listing, without loading the document's user or loan.
+     */
+    interface DocumentListing {
+        Long getId();
+        Long getUserId();
+        Long getLoanApplicationId();
+        String getDocumentType();
+        String getFileName();
+        String getFilePath();
+        String getContentType();
+        Long getFileSize();
+        Document.Status getStatus();
+    }
+
+    /**
+     * What a review decision needs to know about a document.
+     */
+    interface DocumentState {
+        Long getId();
+        Long getUserId();
+        String getDocumentType();
+        Document.Status getStatus();
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.Bank_Loan_Management.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+
+/**
+ * Filters and position for one page of a loan listing. Listings are ordered newest first by
+ * (appliedDate, id); the cursor is the position of the last row of the previous page.
+ */
+public class LoanApplicationFilter {
+
+    private LoanApplication.Status status;
+    private String purpose;
+    private LocalDateTime appliedFrom;
+    private LocalDateTime appliedTo;
+    private Integer minCreditScore;
+    private Integer maxCreditScore;
+    private LocalDateTime afterAppliedDate;
+    private Long afterId;
+
+    /**
+     * Opaque token for the row a page ended on, to pass back as the next page's cursor.
+     */
+    public static String encodeCursor(LocalDateTime appliedDate, Long id) {
+        String position = appliedDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Continues after the position in a token from {@link #encodeCursor}; a null or blank token starts at the top.
+     */
+    public void setCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            afterAppliedDate = null;
+            afterId = null;
+            return;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            afterAppliedDate = LocalDateTime.parse(position.substring(0, separator));
+            afterId = Long.valueOf(position.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // getters and setters
+    public LoanApplication.Status getStatus() { return status; }
+    public void setStatus(LoanApplication.Status status) { this.status = status; }
+    public String getPurpose() { return purpose; }
+    public void setPurpose(String purpose) { this.purpose = purpose; }
+    public LocalDateTime getAppliedFrom() { return appliedFrom; }
+    public void setAppliedFrom(LocalDateTime appliedFrom) { this.appliedFrom = appliedFrom; }
+    public LocalDateTime getAppliedTo() { return appliedTo; }
+    public void setAppliedTo(LocalDateTime appliedTo) { this.appliedTo = appliedTo; }
+    public Integer getMinCreditScore() { return minCreditScore; }
+    public void setMinCreditScore(Integer minCreditScore) { this.minCreditScore = minCreditScore; }
+    public Integer getMaxCreditScore() { return maxCreditScore; }
+    public void setMaxCreditScore(Integer maxCreditScore) { this.maxCreditScore = maxCreditScore; }
+    public LocalDateTime getAfterAppliedDate() { return afterAppliedDate; }
+    public Long getAfterId() { return afterId; }
+}
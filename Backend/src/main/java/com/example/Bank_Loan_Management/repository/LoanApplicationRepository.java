@@ -2,10 +2,88 @@ package com.example.Bank_Loan_Management.repository;
 
 import com.example.Bank_Loan_Management.entity.LoanApplication;
 import com.example.Bank_Loan_Management.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long> {
+public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long>, LoanApplicationRepositoryCustom {
+    @EntityGraph(attributePaths = {"user", "loanManager", "manager"})
     List<LoanApplication> findByUser(User user);
     List<LoanApplication> findByStatus(LoanApplication.Status status);
+
+    @Query("SELECT l.user.id AS userId, " +
+           "SUM(CASE WHEN l.status = :approved THEN 1 ELSE 0 END) AS approvedCount, " +
+           "SUM(CASE WHEN l.status = :rejected THEN 1 ELSE 0 END) AS rejectedCount, " +
+           "SUM(CASE WHEN l.status = :approved AND l.pendingAmount = 0 THEN 1 ELSE 0 END) AS fullyPaidCount, " +
+           "SUM(CASE WHEN l.status = :approved AND l.pendingAmount > 0 THEN 1 ELSE 0 END) AS outstandingCount " +
+           "FROM LoanApplication l WHERE l.user.id = :userId GROUP BY l.user.id")
+    Optional<LoanHistorySummary> summarizeHistory(@Param("userId") Long userId,
+                                                  @Param("approved") LoanApplication.Status approved,
+                                                  @Param("rejected") LoanApplication.Status rejected);
+
+    default Optional<LoanHistorySummary> summarizeHistory(Long userId) {
+        return summarizeHistory(userId, LoanApplication.Status.APPROVED, LoanApplication.Status.REJECTED);
+    }
+
+    @Query("SELECT l.user.id AS userId, " +
+           "SUM(CASE WHEN l.status = :approved THEN 1 ELSE 0 END) AS approvedCount, " +
+           "SUM(CASE WHEN l.status = :rejected THEN 1 ELSE 0 END) AS rejectedCount, " +
+           "SUM(CASE WHEN l.status = :approved AND l.pendingAmount = 0 THEN 1 ELSE 0 END) AS fullyPaidCount, " +
+           "SUM(CASE WHEN l.status = :approved AND l.pendingAmount > 0 THEN 1 ELSE 0 END) AS outstandingCount " +
+           "FROM LoanApplication l WHERE l.user.id IN :userIds GROUP BY l.user.id")
+    List<LoanHistorySummary> summarizeHistories(@Param("userIds") Collection<Long> userIds,
+                                                @Param("approved") LoanApplication.Status approved,
+                                                @Param("rejected") LoanApplication.Status rejected);
+
+    default List<LoanHistorySummary> summarizeHistories(Collection<Long> userIds) {
+        return summarizeHistories(userIds, LoanApplication.Status.APPROVED, LoanApplication.Status.REJECTED);
+    }
+
+    @Query("SELECT l.id FROM LoanApplication l WHERE l.user.id = :userId AND l.status = :status")
+    List<Long> findIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") LoanApplication.Status status);
+
+    /**
+     * Moves all of the borrower's APPLIED applications to VERIFIED, with their documents marked verified,
+     * in one statement.
+     */
+    @Modifying
+    @Query("UPDATE LoanApplication l SET l.documentsVerified = true, l.status = :verified " +
+           "WHERE l.user.id = :userId AND l.status = :applied")
+    int promoteApplied(@Param("userId") Long userId, @Param("applied") LoanApplication.Status applied,
+                       @Param("verified") LoanApplication.Status verified);
+
+    default int promoteApplied(Long userId) {
+        return promoteApplied(userId, LoanApplication.Status.APPLIED, LoanApplication.Status.VERIFIED);
+    }
+
+    @Modifying
+    @Query("UPDATE LoanApplication l SET l.documentsVerified = :verified " +
+           "WHERE l.user.id = :userId AND l.documentsVerified <> :verified")
+    int setDocumentsVerified(@Param("userId") Long userId, @Param("verified") boolean verified);
+
+    /**
+     * Marks an application as changed without loading it, for changes made to its documents. Cold storage
+     * finds newly cold content through this timestamp.
+     */
+    @Modifying
+    @Query("UPDATE LoanApplication l SET l.lastModified = :now WHERE l.id = :id")
+    int touch(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Loan history counts for one borrower, as used by credit scoring. Approved loans with no pending
+     * amount recorded count as neither fully paid nor outstanding.
+     */
+    interface LoanHistorySummary {
+        Long getUserId();
+        long getApprovedCount();
+        long getRejectedCount();
+        long getFullyPaidCount();
+        long getOutstandingCount();
+    }
 }
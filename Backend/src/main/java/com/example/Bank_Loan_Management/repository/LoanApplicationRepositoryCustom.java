@@ -0,0 +1,20 @@
+package com.example.Bank_Loan_Management.repository;
+
+import java.util.List;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+
+public interface LoanApplicationRepositoryCustom {
+
+    /**
+     * Up to {@code limit} applications matching the filter, newest first by (appliedDate, id), starting
+     * after the filter's cursor. Seeks on the (applied_date, id) index rather than skipping rows. The
+     * borrower, loan manager and manager are fetched with the page.
+     */
+    List<LoanApplication> findPage(LoanApplicationFilter filter, int limit);
+
+    /**
+     * The same page as {@link #findPage}, as listing rows with the borrower's id, username and email.
+     */
+    List<LoanListing> findListingPage(LoanApplicationFilter filter, int limit);
+}
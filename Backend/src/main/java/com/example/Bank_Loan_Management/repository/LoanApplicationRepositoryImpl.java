@@ -0,0 +1,85 @@
+package com.example.Bank_Loan_Management.repository;
+
+import java.util.List;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+class LoanApplicationRepositoryImpl implements LoanApplicationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String LISTING_SELECT =
+            "SELECT new com.example.Bank_Loan_Management.repository.LoanListing(" +
+            "l.id, l.amount, l.term, l.purpose, l.status, l.creditScore, l.appliedDate, l.decisionDate, " +
+            "l.approvedAmount, l.paidAmount, l.pendingAmount, l.interestRate, u.id, u.username, u.email) " +
+            "FROM LoanApplication l JOIN l.user u";
+
+    @Override
+    public List<LoanApplication> findPage(LoanApplicationFilter filter, int limit) {
+        // The three users each row shows come back in the same statement
+        return pageQuery("SELECT l FROM LoanApplication l JOIN FETCH l.user " +
+                "LEFT JOIN FETCH l.loanManager LEFT JOIN FETCH l.manager", filter, limit, LoanApplication.class);
+    }
+
+    @Override
+    public List<LoanListing> findListingPage(LoanApplicationFilter filter, int limit) {
+        return pageQuery(LISTING_SELECT, filter, limit, LoanListing.class);
+    }
+
+    private <T> List<T> pageQuery(String select, LoanApplicationFilter filter, int limit, Class<T> resultType) {
+        // Only the filters that are set become predicates, so each combination gets its own simple plan
+        StringBuilder jpql = new StringBuilder(select).append(" WHERE 1 = 1");
+        if (filter.getStatus() != null) {
+            jpql.append(" AND l.status = :status");
+        }
+        if (filter.getPurpose() != null) {
+            jpql.append(" AND LOWER(l.purpose) = LOWER(:purpose)");
+        }
+        if (filter.getAppliedFrom() != null) {
+            jpql.append(" AND l.appliedDate >= :appliedFrom");
+        }
+        if (filter.getAppliedTo() != null) {
+            jpql.append(" AND l.appliedDate < :appliedTo");
+        }
+        if (filter.getMinCreditScore() != null) {
+            jpql.append(" AND l.creditScore >= :minCreditScore");
+        }
+        if (filter.getMaxCreditScore() != null) {
+            jpql.append(" AND l.creditScore <= :maxCreditScore");
+        }
+        if (filter.getAfterId() != null) {
+            jpql.append(" AND (l.appliedDate < :afterAppliedDate OR (l.appliedDate = :afterAppliedDate AND l.id < :afterId))");
+        }
+        jpql.append(" ORDER BY l.appliedDate DESC, l.id DESC");
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+        if (filter.getStatus() != null) {
+            query.setParameter("status", filter.getStatus());
+        }
+        if (filter.getPurpose() != null) {
+            query.setParameter("purpose", filter.getPurpose().trim());
+        }
+        if (filter.getAppliedFrom() != null) {
+            query.setParameter("appliedFrom", filter.getAppliedFrom());
+        }
+        if (filter.getAppliedTo() != null) {
+            query.setParameter("appliedTo", filter.getAppliedTo());
+        }
+        if (filter.getMinCreditScore() != null) {
+            query.setParameter("minCreditScore", filter.getMinCreditScore());
+        }
+        if (filter.getMaxCreditScore() != null) {
+            query.setParameter("maxCreditScore", filter.getMaxCreditScore());
+        }
+        if (filter.getAfterId() != null) {
+            query.setParameter("afterAppliedDate", filter.getAfterAppliedDate());
+            query.setParameter("afterId", filter.getAfterId());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
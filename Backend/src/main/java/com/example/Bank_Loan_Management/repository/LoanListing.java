@@ -0,0 +1,66 @@
+package com.example.Bank_Loan_Management.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+
+/**
+ * The columns the loan listings show, selected directly by a constructor expression so no entities are
+ * loaded or tracked by the persistence context.
+ */
+public class LoanListing {
+
+    private final Long id;
+    private final BigDecimal amount;
+    private final Integer term;
+    private final String purpose;
+    private final LoanApplication.Status status;
+    private final Integer creditScore;
+    private final LocalDateTime appliedDate;
+    private final LocalDateTime decisionDate;
+    private final BigDecimal approvedAmount;
+    private final BigDecimal paidAmount;
+    private final BigDecimal pendingAmount;
+    private final BigDecimal interestRate;
+    private final Long userId;
+    private final String username;
+    private final String userEmail;
+
+    public LoanListing(Long id, BigDecimal amount, Integer term, String purpose, LoanApplication.Status status,
+                       Integer creditScore, LocalDateTime appliedDate, LocalDateTime decisionDate,
+                       BigDecimal approvedAmount, BigDecimal paidAmount, BigDecimal pendingAmount,
+                       BigDecimal interestRate, Long userId, String username, String userEmail) {
+        this.id = id;
+        this.amount = amount;
+        this.term = term;
+        this.purpose = purpose;
+        this.status = status;
+        this.creditScore = creditScore;
+        this.appliedDate = appliedDate;
+        this.decisionDate = decisionDate;
+        this.approvedAmount = approvedAmount;
+        this.paidAmount = paidAmount;
+        this.pendingAmount = pendingAmount;
+        this.interestRate = interestRate;
+        this.userId = userId;
+        this.username = username;
+        this.userEmail = userEmail;
+    }
+
+    public Long getId() { return id; }
+    public BigDecimal getAmount() { return amount; }
+    public Integer getTerm() { return term; }
+    public String getPurpose() { return purpose; }
+    public LoanApplication.Status getStatus() { return status; }
+    public Integer getCreditScore() { return creditScore; }
+    public LocalDateTime getAppliedDate() { return appliedDate; }
+    public LocalDateTime getDecisionDate() { return decisionDate; }
+    public BigDecimal getApprovedAmount() { return approvedAmount; }
+    public BigDecimal getPaidAmount() { return paidAmount; }
+    public BigDecimal getPendingAmount() { return pendingAmount; }
+    public BigDecimal getInterestRate() { return interestRate; }
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getUserEmail() { return userEmail; }
+}
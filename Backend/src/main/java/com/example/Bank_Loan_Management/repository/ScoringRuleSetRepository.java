@@ -0,0 +1,33 @@
+package com.example.Bank_Loan_Management.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.Bank_Loan_Management.entity.ScoringRuleSet;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ScoringRuleSetRepository extends JpaRepository<ScoringRuleSet, Long> {
+    @Query("SELECT s FROM ScoringRuleSet s LEFT JOIN FETCH s.rules WHERE s.version = :version")
+    Optional<ScoringRuleSet> findWithRulesByVersion(@Param("version") Integer version);
+
+    @Query("SELECT s FROM ScoringRuleSet s LEFT JOIN FETCH s.rules WHERE s.active = true")
+    Optional<ScoringRuleSet> findActiveWithRules();
+
+    List<ScoringRuleSet> findAllByOrderByVersionDesc();
+
+    // Every version, locked in id order; one row per version, so this is a handful of rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScoringRuleSet s ORDER BY s.id")
+    List<ScoringRuleSet> findAllForUpdate();
+
+    @Query("SELECT COALESCE(MAX(s.version), 0) FROM ScoringRuleSet s")
+    int findMaxVersion();
+}
@@ -2,9 +2,19 @@ package com.example.Bank_Loan_Management.repository;
 
 import com.example.Bank_Loan_Management.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    // Writes only the cached credit score profile points, not the rest of the row
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.profilePoints = :points, u.profilePointsVersion = :version WHERE u.id = :id")
+    int updateProfilePoints(@Param("id") Long id, @Param("points") int points, @Param("version") int version);
 }
@@ -0,0 +1,183 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Equal monthly installment (EMI) repayment schedule, held as primitive arrays of cents.
+ *
+ * Each month's interest is the opening balance times the annual rate / 12, rounded half-up to the cent
+ * with integer arithmetic; the rest of the installment repays principal. The last installment is
+ * adjusted so the balance ends at exactly zero. Schedules are immutable and safe to share.
+ */
+public final class AmortizationSchedule {
+
+    public static final int MAX_TERM = 1200;
+
+    // Annual rate in hundredths of a percent, the precision LoanApplication.interestRate is stored with
+    private static final long RATE_SCALE = 10_000L;
+    private static final long MONTHLY_RATE_DIVISOR = 12 * RATE_SCALE;
+
+    private final long principalCents;
+    private final int annualRateBasisPoints;
+    private final long installmentCents;
+    private final long[] interest;
+    private final long[] principal;
+    private final long[] balance;
+    private final long totalInterestCents;
+
+    private AmortizationSchedule(long principalCents, int annualRateBasisPoints, long installmentCents,
+                                 long[] interest, long[] principal, long[] balance, long totalInterestCents) {
+        this.principalCents = principalCents;
+        this.annualRateBasisPoints = annualRateBasisPoints;
+        this.installmentCents = installmentCents;
+        this.interest = interest;
+        this.principal = principal;
+        this.balance = balance;
+        this.totalInterestCents = totalInterestCents;
+    }
+
+    /**
+     * @param amount             principal, rounded half-up to the cent
+     * @param annualRatePercent  yearly rate in percent, e.g. 8.5; rounded half-up to two decimals
+     * @param termMonths         number of monthly installments
+     */
+    public static AmortizationSchedule compute(BigDecimal amount, BigDecimal annualRatePercent, int termMonths) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Loan amount must be positive");
+        }
+        if (termMonths <= 0 || termMonths > MAX_TERM) {
+            throw new IllegalArgumentException("Loan term must be between 1 and " + MAX_TERM + " months");
+        }
+        if (annualRatePercent == null || annualRatePercent.signum() < 0) {
+            throw new IllegalArgumentException("Interest rate must not be negative");
+        }
+        long principalCents = amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        int rateBasisPoints = annualRatePercent.setScale(2, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+        long installment = installmentCents(principalCents, rateBasisPoints, termMonths);
+
+        long[] interest = new long[termMonths];
+        long[] principal = new long[termMonths];
+        long[] balance = new long[termMonths];
+        long remaining = principalCents;
+        long totalInterest = 0;
+        for (int month = 0; month < termMonths; month++) {
+            // (remaining * rate + divisor / 2) / divisor is the half-up rounded monthly interest
+            long monthInterest = Math.multiplyExact(remaining, (long) rateBasisPoints) + MONTHLY_RATE_DIVISOR / 2;
+            monthInterest /= MONTHLY_RATE_DIVISOR;
+            long monthPrincipal = month == termMonths - 1
+                    ? remaining
+                    : Math.min(remaining, Math.max(0, installment - monthInterest));
+            remaining -= monthPrincipal;
+            interest[month] = monthInterest;
+            principal[month] = monthPrincipal;
+            balance[month] = remaining;
+            totalInterest += monthInterest;
+        }
+        return new AmortizationSchedule(principalCents, rateBasisPoints, installment, interest, principal, balance,
+                totalInterest);
+    }
+
+    /**
+     * P * r / (1 - (1 + r)^-n) rounded half-up to the cent, or P / n rounded up for an interest-free loan.
+     */
+    private static long installmentCents(long principalCents, int rateBasisPoints, int termMonths) {
+        if (rateBasisPoints == 0) {
+            return (principalCents + termMonths - 1) / termMonths;
+        }
+        MathContext context = MathContext.DECIMAL64;
+        BigDecimal monthlyRate = BigDecimal.valueOf(rateBasisPoints).divide(BigDecimal.valueOf(MONTHLY_RATE_DIVISOR), context);
+        BigDecimal growth = BigDecimal.ONE.add(monthlyRate).pow(termMonths, context);
+        BigDecimal installment = BigDecimal.valueOf(principalCents).multiply(monthlyRate).multiply(growth)
+                .divide(growth.subtract(BigDecimal.ONE), context);
+        return installment.setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public int getTerm() {
+        return interest.length;
+    }
+
+    public BigDecimal getPrincipal() {
+        return BigDecimal.valueOf(principalCents, 2);
+    }
+
+    public BigDecimal getAnnualRate() {
+        return BigDecimal.valueOf(annualRateBasisPoints, 2);
+    }
+
+    public BigDecimal getMonthlyInstallment() {
+        return BigDecimal.valueOf(installmentCents, 2);
+    }
+
+    public BigDecimal getTotalInterest() {
+        return BigDecimal.valueOf(totalInterestCents, 2);
+    }
+
+    public BigDecimal getTotalRepayment() {
+        return BigDecimal.valueOf(principalCents + totalInterestCents, 2);
+    }
+
+    /**
+     * One row per installment: month, payment, principal, interest, balance.
+     */
+    public void writeCsv(Writer out) throws IOException {
+        out.write("month,payment,principal,interest,balance\n");
+        for (int month = 0; month < interest.length; month++) {
+            out.write(Integer.toString(month + 1));
+            out.write(',');
+            writeCents(out, principal[month] + interest[month]);
+            out.write(',');
+            writeCents(out, principal[month]);
+            out.write(',');
+            writeCents(out, interest[month]);
+            out.write(',');
+            writeCents(out, balance[month]);
+            out.write('\n');
+        }
+    }
+
+    /**
+     * The summary figures followed by an "installments" array with the same columns as {@link #writeCsv}.
+     */
+    public void writeJson(Writer out) throws IOException {
+        out.write("{\"term\":");
+        out.write(Integer.toString(interest.length));
+        out.write(",\"principal\":");
+        writeCents(out, principalCents);
+        out.write(",\"annualRate\":");
+        writeCents(out, annualRateBasisPoints);
+        out.write(",\"monthlyInstallment\":");
+        writeCents(out, installmentCents);
+        out.write(",\"totalInterest\":");
+        writeCents(out, totalInterestCents);
+        out.write(",\"totalRepayment\":");
+        writeCents(out, principalCents + totalInterestCents);
+        out.write(",\"installments\":[");
+        for (int month = 0; month < interest.length; month++) {
+            out.write(month == 0 ? "{\"month\":" : ",{\"month\":");
+            out.write(Integer.toString(month + 1));
+            out.write(",\"payment\":");
+            writeCents(out, principal[month] + interest[month]);
+            out.write(",\"principal\":");
+            writeCents(out, principal[month]);
+            out.write(",\"interest\":");
+            writeCents(out, interest[month]);
+            out.write(",\"balance\":");
+            writeCents(out, balance[month]);
+            out.write('}');
+        }
+        out.write("]}");
+    }
+
+    // Non-negative hundredths as a plain decimal with two places, without going through BigDecimal
+    private static void writeCents(Writer out, long cents) throws IOException {
+        out.write(Long.toString(cents / 100));
+        long fraction = cents % 100;
+        out.write('.');
+        out.write((char) ('0' + fraction / 10));
+        out.write((char) ('0' + fraction % 10));
+    }
+}
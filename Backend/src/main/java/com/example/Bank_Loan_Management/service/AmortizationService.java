@@ -0,0 +1,90 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+
+/**
+ * Repayment schedules for loan applications, kept in a bounded least-recently-used cache. Schedules
+ * depend only on principal, rate and term, so loans with the same terms share one entry and a changed
+ * rate or amount simply misses.
+ */
+@Service
+public class AmortizationService {
+
+    // Used by approveLoan when an application has no rate; kept here so the schedule agrees with it
+    public static final BigDecimal FALLBACK_RATE = BigDecimal.valueOf(8.5);
+    private static final int CACHE_SIZE = 1024;
+
+    private final Map<ScheduleKey, AmortizationSchedule> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ScheduleKey, AmortizationSchedule> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * The schedule for the approved amount (or the requested amount before approval) at the application's rate.
+     */
+    public AmortizationSchedule getSchedule(LoanApplication application) {
+        BigDecimal principal = application.getApprovedAmount() != null ? application.getApprovedAmount() : application.getAmount();
+        return getSchedule(principal, rateOf(application), application.getTerm() != null ? application.getTerm() : 0);
+    }
+
+    public AmortizationSchedule getSchedule(BigDecimal principal, BigDecimal annualRatePercent, int termMonths) {
+        if (principal == null || annualRatePercent == null) {
+            throw new IllegalArgumentException("Loan amount and interest rate are required");
+        }
+        ScheduleKey key = new ScheduleKey(principal.setScale(2, RoundingMode.HALF_UP),
+                annualRatePercent.setScale(2, RoundingMode.HALF_UP), termMonths);
+        synchronized (cache) {
+            AmortizationSchedule cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Computed outside the lock; two threads racing on the same key produce identical schedules
+        AmortizationSchedule schedule = AmortizationSchedule.compute(key.principal, key.rate, key.term);
+        synchronized (cache) {
+            cache.put(key, schedule);
+        }
+        return schedule;
+    }
+
+    static BigDecimal rateOf(LoanApplication application) {
+        BigDecimal rate = application.getInterestRate();
+        return rate == null || rate.compareTo(BigDecimal.ZERO) <= 0 ? FALLBACK_RATE : rate;
+    }
+
+    private static final class ScheduleKey {
+        private final BigDecimal principal;
+        private final BigDecimal rate;
+        private final int term;
+
+        ScheduleKey(BigDecimal principal, BigDecimal rate, int term) {
+            this.principal = principal;
+            this.rate = rate;
+            this.term = term;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ScheduleKey)) {
+                return false;
+            }
+            ScheduleKey key = (ScheduleKey) other;
+            return term == key.term && principal.equals(key.principal) && rate.equals(key.rate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(principal, rate, term);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory change counters for the collections the dashboards poll, used as ETags so an unchanged
+ * listing can be answered with 304 Not Modified without querying the database.
+ *
+ * Counters are bumped after the writing transaction commits. A listing that reads the version before
+ * running its query can then only ever be tagged older than its data, which costs one extra refetch,
+ * never a stale 304.
+ */
+@Service
+public class ChangeVersionService {
+
+    public enum Collection {
+        LOANS, DOCUMENTS
+    }
+
+    // Distinguishes this process's counters from a previous run's, so a restart never reissues a tag
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+
+    public ChangeVersionService() {
+        for (Collection collection : Collection.values()) {
+            versions.put(collection, new AtomicLong());
+        }
+    }
+
+    public long getVersion(Collection collection) {
+        return versions.get(collection).get();
+    }
+
+    /**
+     * A strong ETag for the current version of the collection, e.g. "loans-m1x2y3z4-42".
+     */
+    public String getETag(Collection collection) {
+        return "\"" + collection.name().toLowerCase() + "-" + epoch + "-" + getVersion(collection) + "\"";
+    }
+
+    /**
+     * Marks the collections as changed once the current transaction commits, or immediately when there is none.
+     */
+    public void changed(Collection... collections) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(collections);
+                }
+            });
+        } else {
+            bump(collections);
+        }
+    }
+
+    private void bump(Collection... collections) {
+        for (Collection collection : collections) {
+            versions.get(collection).incrementAndGet();
+        }
+    }
+}
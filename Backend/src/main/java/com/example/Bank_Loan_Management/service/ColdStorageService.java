@@ -0,0 +1,182 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves the content of documents nobody is likely to open again into the {@link PackStore}: content whose
+ * every document belongs to a REJECTED loan or an approved loan that is fully repaid. Content also used by
+ * an unattached document or an open loan stays where it is.
+ *
+ * A pass appends cold content to the current segment and only deletes the loose files on the next pass, so
+ * a download that located a file just before it was packed can still open it. Progress is recorded in
+ * {@code content_blobs.pack_state}.
+ *
+ * The first pass after a start looks at every loan; later ones only at documents of loans whose
+ * {@code last_modified} moved since the previous pass. Hibernate sets it on entity saves, which is how loans
+ * are approved and rejected, and {@code LoanApplicationRepository.touch} sets it when documents are attached
+ * to a loan. Bulk updates (promotion to VERIFIED, the documents-verified flag, rescoring) leave it alone;
+ * none of them makes a loan cold, but one that does must touch the loans it changes or wait for the full
+ * pass after a restart. Repayments are not recorded yet, so {@code pending_amount} never reaches 0 and only
+ * the content of REJECTED loans is packed for now.
+ */
+@Service
+public class ColdStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColdStorageService.class);
+
+    private static final Duration PACK_INTERVAL = Duration.ofHours(24);
+    private static final int MAX_PER_PASS = 10_000;
+    // Loans saved just before a pass may commit after its query ran, so each pass looks back this far
+    private static final Duration COMMIT_MARGIN = Duration.ofHours(1);
+    private static final LocalDateTime EVERY_LOAN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String PACKING = "PACKING";
+    private static final String PACKED = "PACKED";
+
+    // Unpacked content of documents whose loan changed since the given time, kept only if every document
+    // sharing it is cold
+    private static final String COLD_CONTENT =
+            "SELECT d.content_hash, MAX(d.content_encoding) FROM documents d " +
+            "LEFT JOIN loan_applications la ON la.id = d.loan_application_id " +
+            "WHERE d.content_hash IN (SELECT cd.content_hash FROM loan_applications cl " +
+            "JOIN documents cd ON cd.loan_application_id = cl.id " +
+            "JOIN content_blobs b ON b.hash = cd.content_hash " +
+            "WHERE cl.last_modified >= ? AND b.pack_state IS NULL) " +
+            "GROUP BY d.content_hash " +
+            "HAVING SUM(CASE WHEN la.status = 'REJECTED' OR (la.status = 'APPROVED' AND la.pending_amount = 0) " +
+            "THEN 0 ELSE 1 END) = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentStore contentStore;
+    private final PackStore packStore;
+
+    // Start of the last pass that packed everything it found; null before the first
+    private LocalDateTime lastCompletePassAt;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cold-storage");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ColdStorageService(JdbcTemplate jdbcTemplate, ContentStore contentStore, PackStore packStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.contentStore = contentStore;
+        this.packStore = packStore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                pack();
+            } catch (RuntimeException e) {
+                logger.error("Packing cold documents failed", e);
+            }
+        }, PACK_INTERVAL.toMinutes(), PACK_INTERVAL.toMinutes(), TimeUnit.MINUTES);
+    }
+
+    /**
+     * One pass: removes loose files packed by the previous pass, then packs newly cold content.
+     *
+     * @return the number of files packed
+     */
+    public synchronized int pack() {
+        LocalDateTime started = LocalDateTime.now();
+        int removed = removePackedLooseCopies();
+
+        LocalDateTime since = lastCompletePassAt == null ? EVERY_LOAN : lastCompletePassAt.minus(COMMIT_MARGIN);
+        List<Object[]> cold = jdbcTemplate.query(COLD_CONTENT, (rs, rowNum) -> new Object[] {rs.getString(1), rs.getString(2)},
+                Timestamp.valueOf(since));
+        List<Object[]> packedHashes = new ArrayList<>();
+        for (Object[] row : cold) {
+            if (packedHashes.size() >= MAX_PER_PASS) {
+                break;
+            }
+            String hash = (String) row[0];
+            try {
+                // A pass that stopped before recording its work may already have appended it
+                if (packStore.find(hash) == null) {
+                    // Whichever form the content store holds; the encoding is kept in the pack index
+                    Path compressed = contentStore.resolve(hash, ContentStore.GZIP);
+                    Path plain = contentStore.resolve(hash);
+                    if (Files.exists(compressed)) {
+                        packStore.append(hash, compressed, ContentStore.GZIP);
+                    } else if (Files.exists(plain)) {
+                        packStore.append(hash, plain, null);
+                    } else {
+                        logger.warn("Content {} of a cold document is missing from the content store", hash);
+                        continue;
+                    }
+                }
+                packedHashes.add(new Object[] {PACKING, hash});
+            } catch (IOException e) {
+                logger.error("Could not pack content {}", hash, e);
+            }
+        }
+        if (!packedHashes.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE content_blobs SET pack_state = ? WHERE hash = ?", packedHashes);
+        }
+        // A capped pass leaves cold content behind, so the next one looks at the same loans again
+        if (packedHashes.size() < MAX_PER_PASS) {
+            lastCompletePassAt = started;
+        }
+        logger.info("Packed {} cold files, removed {} loose copies of files packed earlier", packedHashes.size(), removed);
+        return packedHashes.size();
+    }
+
+    // Only content the previous pass packed still has loose copies
+    private int removePackedLooseCopies() {
+        List<String> packing = jdbcTemplate.queryForList("SELECT hash FROM content_blobs WHERE pack_state = ?",
+                String.class, PACKING);
+        int removed = 0;
+        List<Object[]> done = new ArrayList<>();
+        for (String hash : packing) {
+            try {
+                removed += deleteLooseCopies(hash);
+                done.add(new Object[] {PACKED, hash});
+            } catch (IOException e) {
+                logger.error("Could not remove loose copies of packed content {}", hash, e);
+            }
+        }
+        if (!done.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE content_blobs SET pack_state = ? WHERE hash = ?", done);
+        }
+        return removed;
+    }
+
+    private int deleteLooseCopies(String hash) throws IOException {
+        int deleted = 0;
+        if (Files.deleteIfExists(contentStore.resolve(hash))) {
+            deleted++;
+        }
+        if (Files.deleteIfExists(contentStore.resolve(hash, ContentStore.GZIP))) {
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,429 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.Bank_Loan_Management.entity.ContentBlob;
+
+/**
+ * Content-addressed file store for document bytes.
+ *
+ * Content is streamed once to a temporary file while its SHA-256 is computed, then moved to
+ * {@code objects/ab/cd/<hash>} under {@code documents.storage-dir} ({@code uploads} by default).
+ * Identical content is kept once and recorded once in the {@code content_blobs} table. The two directory
+ * levels keep any one directory to a few thousand entries at millions of files.
+ *
+ * Content may be stored gzip-compressed instead, as {@code <hash>.gz}; the hash is always that of the
+ * original bytes, so deduplication does not depend on how the content was stored. Cold content may have
+ * been moved into the {@link PackStore}; {@link #locate} and {@link #open} find it in either place.
+ */
+@Service
+public class ContentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentStore.class);
+
+    public static final String GZIP = "gzip";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // A compressed copy is kept only if it is at most this fraction of the original
+    private static final double MAX_COMPRESSED_RATIO = 0.9;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PackStore packStore;
+    private final Path objects;
+    private final Path incoming;
+
+    @Autowired
+    public ContentStore(JdbcTemplate jdbcTemplate, PackStore packStore,
+                        @Value("${documents.storage-dir:uploads}") String storageDir) {
+        this(jdbcTemplate, packStore, Paths.get(storageDir));
+    }
+
+    ContentStore(JdbcTemplate jdbcTemplate, PackStore packStore, Path root) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.packStore = packStore;
+        this.objects = root.resolve("objects");
+        // Same file system as objects, so finished uploads can be moved into place atomically
+        this.incoming = root.resolve("incoming");
+        try {
+            Files.createDirectories(objects);
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not initialize content store!");
+        }
+    }
+
+    /**
+     * Stores the stream's content, or finds it already stored, and adds a reference to it. Call inside the
+     * transaction that saves the referring document so the count rolls back with it.
+     *
+     * @param maxBytes content longer than this is rejected with an IllegalArgumentException
+     */
+    public StoredContent store(InputStream in, long maxBytes) throws IOException {
+        return store(in, maxBytes, DocumentCompression.NO_COMPRESSION);
+    }
+
+    /**
+     * As {@link #store(InputStream, long)}, compressing new content as {@link #commit(PendingContent, int)} does.
+     */
+    public StoredContent store(InputStream in, long maxBytes, int compressionLevel) throws IOException {
+        PendingContent pending = begin(maxBytes, null);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                pending.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            pending.abort();
+            throw e;
+        }
+        return commit(pending, compressionLevel);
+    }
+
+    /**
+     * Starts an upload that is fed chunk by chunk, for callers reading the body without blocking.
+     *
+     * @param expectedHash hex SHA-256 the client says it sent, checked on commit; null to skip
+     */
+    public PendingContent begin(long maxBytes, String expectedHash) throws IOException {
+        return new PendingContent(Files.createTempFile(incoming, "upload-", ".tmp"), maxBytes, expectedHash);
+    }
+
+    /**
+     * Moves a finished upload into place, or drops it as a duplicate, and adds a reference to the content.
+     */
+    public StoredContent commit(PendingContent pending) throws IOException {
+        return commit(pending, DocumentCompression.NO_COMPRESSION);
+    }
+
+    /**
+     * As {@link #commit(PendingContent)}, gzip-compressing new content at the given Deflater level when that
+     * saves enough. Content already stored keeps the form it was first stored in.
+     */
+    public StoredContent commit(PendingContent pending, int compressionLevel) throws IOException {
+        if (pending.isAborted()) {
+            throw new IllegalStateException("Upload was aborted");
+        }
+        Path compressedTemp = null;
+        try {
+            pending.out.close();
+            String hash = HexFormat.of().formatHex(pending.digest.digest());
+            if (pending.expectedHash != null && !pending.expectedHash.equalsIgnoreCase(hash)) {
+                throw new IllegalArgumentException("Content does not match the given SHA-256");
+            }
+            StoredContent stored;
+            PackStore.Entry packed = packStore.find(hash);
+            if (packed != null) {
+                logger.debug("Content {} already packed, dropping duplicate upload", hash);
+                stored = new StoredContent(hash, pending.size, packed.getEncoding(), packed.getLength(), false, 0);
+            } else if (Files.exists(resolve(hash, GZIP))) {
+                logger.debug("Content {} already stored, dropping duplicate upload", hash);
+                stored = new StoredContent(hash, pending.size, GZIP, Files.size(resolve(hash, GZIP)), false, 0);
+            } else if (Files.exists(resolve(hash))) {
+                logger.debug("Content {} already stored, dropping duplicate upload", hash);
+                stored = new StoredContent(hash, pending.size, null, pending.size, false, 0);
+            } else {
+                Path source = pending.temp;
+                String encoding = null;
+                long cpuNanos = 0;
+                if (compressionLevel != DocumentCompression.NO_COMPRESSION && pending.size > 0) {
+                    long start = DocumentCompression.cpuNanos();
+                    compressedTemp = gzip(pending.temp, compressionLevel);
+                    cpuNanos = DocumentCompression.cpuNanos() - start;
+                    if (Files.size(compressedTemp) <= pending.size * MAX_COMPRESSED_RATIO) {
+                        source = compressedTemp;
+                        encoding = GZIP;
+                    }
+                }
+                Path target = resolve(hash, encoding);
+                long storedSize = Files.size(source);
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // A concurrent upload of the same content got there first
+                }
+                stored = new StoredContent(hash, pending.size, encoding, storedSize, true, cpuNanos);
+            }
+            if (stored.isWritten()) {
+                // Duplicates were recorded by the upload that first stored the content
+                recordBlob(hash, pending.size, stored.getEncoding());
+            }
+            return stored;
+        } finally {
+            Files.deleteIfExists(pending.temp);
+            if (compressedTemp != null) {
+                Files.deleteIfExists(compressedTemp);
+            }
+        }
+    }
+
+    private Path gzip(Path source, int level) throws IOException {
+        Path compressed = Files.createTempFile(incoming, "upload-", ".gz.tmp");
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), BUFFER_SIZE) {
+                 {
+                     def.setLevel(level);
+                 }
+             }) {
+            in.transferTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(compressed);
+            throw e;
+        }
+        return compressed;
+    }
+
+    public Path resolve(String hash) {
+        if (hash.length() != 64) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+        return objects.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /**
+     * The file holding the content in the given encoding, null for uncompressed.
+     */
+    public Path resolve(String hash, String encoding) {
+        Path path = resolve(hash);
+        return encoding == null ? path : path.resolveSibling(hash + ".gz");
+    }
+
+    /**
+     * Where stored content is now: its own file, or a stretch of a pack segment. The location's encoding is
+     * the one to decode with; packing keeps whichever form it found.
+     *
+     * @param encoding the encoding the content was stored with
+     */
+    public Location locate(String hash, String encoding) throws IOException {
+        PackStore.Entry packed = packStore.find(hash);
+        if (packed != null) {
+            return new Location(packed.getFile(), packed.getOffset(), packed.getLength(), packed.getEncoding(),
+                    packed.getLastModified());
+        }
+        Path file = resolve(hash, encoding);
+        return new Location(file, 0, Files.size(file), encoding, Files.getLastModifiedTime(file).toMillis());
+    }
+
+    /**
+     * The content_blobs row of stored content, or null if it was never stored. Its encoding is the form
+     * the content was first stored in, for callers that keep only the hash.
+     */
+    public ContentBlob find(String hash) {
+        List<ContentBlob> blobs = jdbcTemplate.query(
+                "SELECT hash, size, encoding, created_at, pack_state FROM content_blobs WHERE hash = ?",
+                (rs, rowNum) -> new ContentBlob(rs.getString(1), rs.getLong(2), rs.getString(3),
+                        rs.getTimestamp(4).toLocalDateTime(), rs.getString(5)), hash);
+        return blobs.isEmpty() ? null : blobs.get(0);
+    }
+
+    /**
+     * The original bytes of stored content, decompressing it if needed.
+     */
+    public InputStream open(String hash, String encoding) throws IOException {
+        return open(locate(hash, encoding));
+    }
+
+    public InputStream open(Location location) throws IOException {
+        InputStream in = openStored(location);
+        return location.encoding == null ? in : new GZIPInputStream(in, BUFFER_SIZE);
+    }
+
+    /**
+     * The stored bytes at a location, still encoded.
+     */
+    public InputStream openStored(Location location) throws IOException {
+        // Positional, so reading one file out of a pack segment touches only its own bytes
+        FileChannel channel = FileChannel.open(location.file, StandardOpenOption.READ);
+        return new BoundedInputStream(Channels.newInputStream(channel.position(location.offset)), location.length);
+    }
+
+    private void recordBlob(String hash, long size, String encoding) {
+        try {
+            jdbcTemplate.update("INSERT INTO content_blobs (hash, size, encoding, created_at) VALUES (?, ?, ?, ?)",
+                    hash, size, encoding, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            // Recorded by a concurrent upload of the same content
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * An upload in progress: bytes go straight to a temporary file in the store, hashed as they are written.
+     * Not thread-safe; feed it from one thread at a time. Only {@link #abort} may be called from another.
+     */
+    public static class PendingContent {
+        private final Path temp;
+        private final OutputStream out;
+        private final MessageDigest digest = sha256();
+        private final long maxBytes;
+        private final String expectedHash;
+        private long size;
+        private volatile boolean aborted;
+
+        PendingContent(Path temp, long maxBytes, String expectedHash) throws IOException {
+            this.temp = temp;
+            this.out = Files.newOutputStream(temp);
+            this.maxBytes = maxBytes;
+            this.expectedHash = expectedHash;
+        }
+
+        /**
+         * @throws IllegalArgumentException once the content goes over the size limit
+         */
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            size += length;
+            if (size > maxBytes) {
+                throw new IllegalArgumentException("File is larger than the " + maxBytes + " byte limit");
+            }
+            digest.update(buffer, offset, length);
+            out.write(buffer, offset, length);
+        }
+
+        public long getSize() { return size; }
+
+        public boolean isAborted() { return aborted; }
+
+        /**
+         * Drops the upload and its temporary file. Safe to call more than once, and after a commit.
+         */
+        public synchronized void abort() {
+            if (aborted) {
+                return;
+            }
+            aborted = true;
+            try {
+                out.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                logger.warn("Could not remove abandoned upload {}", temp, e);
+            }
+        }
+    }
+
+    /**
+     * {@code length} stored bytes of {@code file} from {@code offset}, in {@code encoding} (null for none).
+     */
+    public static class Location {
+        private final Path file;
+        private final long offset;
+        private final long length;
+        private final String encoding;
+        private final long lastModified;
+
+        Location(Path file, long offset, long length, String encoding, long lastModified) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+            this.encoding = encoding;
+            this.lastModified = lastModified;
+        }
+
+        public Path getFile() { return file; }
+        public long getOffset() { return offset; }
+        public long getLength() { return length; }
+        public String getEncoding() { return encoding; }
+        // Of the content, kept when it moves into a pack
+        public long getLastModified() { return lastModified; }
+    }
+
+    public static class StoredContent {
+        private final String hash;
+        private final long size;
+        private final String encoding;
+        private final long storedSize;
+        private final boolean written;
+        private final long compressionCpuNanos;
+
+        StoredContent(String hash, long size, String encoding, long storedSize, boolean written, long compressionCpuNanos) {
+            this.hash = hash;
+            this.size = size;
+            this.encoding = encoding;
+            this.storedSize = storedSize;
+            this.written = written;
+            this.compressionCpuNanos = compressionCpuNanos;
+        }
+
+        public String getHash() { return hash; }
+        // Size of the original content
+        public long getSize() { return size; }
+        // GZIP, or null when stored as is
+        public String getEncoding() { return encoding; }
+        public long getStoredSize() { return storedSize; }
+        // False when the content was already stored
+        public boolean isWritten() { return written; }
+        public long getCompressionCpuNanos() { return compressionCpuNanos; }
+    }
+
+    private static final class BoundedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            this.in = in;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
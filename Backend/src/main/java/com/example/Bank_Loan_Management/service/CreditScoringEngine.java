@@ -0,0 +1,390 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.example.Bank_Loan_Management.entity.User;
+
+/**
+ * Credit score calculator compiled once from a scoring factor table into sorted primitive band arrays,
+ * looked up by binary search. Each engine carries the version of the rule set it was compiled from.
+ *
+ * Monetary and percentage inputs are converted to fixed-point longs with {@value #FIXED_SCALE} decimal
+ * places without allocating, so a call on the hot path creates no garbage. Inputs outside that envelope
+ * (more than four decimals or a magnitude of 10^11 and above) take an exact BigDecimal slow path, which
+ * keeps the result identical to the original if/else ladder for every input.
+ */
+public final class CreditScoringEngine {
+
+    static final int BASE_SCORE = 500;
+    static final int MIN_SCORE = 300;
+    static final int MAX_SCORE = 850;
+
+    static final int FIXED_SCALE = 4;
+    private static final long FIXED_ONE = 10_000L;
+    private static final int FIXED_INTEGER_DIGITS = 11;
+    // Values at or beyond +/-10^11 are clamped here; every compiled bound lies strictly inside it
+    private static final long FIXED_LIMIT = 100_000_000_000L * FIXED_ONE;
+    private static final long NOT_FIXED = Long.MIN_VALUE;
+
+    static final int DEFAULT_VERSION = 1;
+
+    private static final CreditScoringEngine DEFAULT = defaultTable().compile();
+
+    private final int version;
+    private final Bands income;
+    private final Bands debtToIncome;
+    private final Bands age;
+    private final Bands creditHistoryLength;
+    private final Bands latePayments;
+    private final Bands creditUtilization;
+    private final Bands creditInquiries;
+    private final Bands creditMix;
+    private final Bands amount;
+    private final Bands term;
+    private final Keywords employment;
+    private final Keywords maritalStatus;
+    private final Keywords purpose;
+    private final int fullyPaidPoints;
+    private final int onTimePoints;
+    private final int defaultedPoints;
+    private final int rejectedPoints;
+
+    private CreditScoringEngine(FactorTable table) {
+        this.version = table.version;
+        this.income = table.income;
+        this.debtToIncome = table.debtToIncome;
+        this.age = table.age;
+        this.creditHistoryLength = table.creditHistoryLength;
+        this.latePayments = table.latePayments;
+        this.creditUtilization = table.creditUtilization;
+        this.creditInquiries = table.creditInquiries;
+        this.creditMix = table.creditMix;
+        this.amount = table.amount;
+        this.term = table.term;
+        this.employment = table.employment;
+        this.maritalStatus = table.maritalStatus;
+        this.purpose = table.purpose;
+        this.fullyPaidPoints = table.fullyPaidPoints;
+        this.onTimePoints = table.onTimePoints;
+        this.defaultedPoints = table.defaultedPoints;
+        this.rejectedPoints = table.rejectedPoints;
+    }
+
+    public static CreditScoringEngine defaultEngine() {
+        return DEFAULT;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int score(User user, BigDecimal loanAmount, int loanTerm, String loanPurpose,
+                     int approvedCount, int rejectedCount, int fullyPaidCount, int defaultedCount) {
+        return score(profilePoints(user), user.getAnnualIncome(), user.getExistingDebts(), loanAmount, loanTerm,
+                loanPurpose, approvedCount, rejectedCount, fullyPaidCount, defaultedCount);
+    }
+
+    /**
+     * Scores with profile points computed earlier by {@link #profilePoints} of this same engine version,
+     * so only the application and loan history factors are evaluated.
+     */
+    public int score(int profilePoints, BigDecimal annualIncome, BigDecimal existingDebts,
+                     BigDecimal loanAmount, int loanTerm, String loanPurpose,
+                     int approvedCount, int rejectedCount, int fullyPaidCount, int defaultedCount) {
+        int score = BASE_SCORE
+                + profilePoints
+                + applicationPoints(annualIncome, existingDebts, loanAmount, loanTerm, loanPurpose)
+                + historyPoints(approvedCount, rejectedCount, fullyPaidCount, defaultedCount);
+        return Math.max(MIN_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    /**
+     * Points that depend only on the borrower's profile.
+     */
+    public int profilePoints(User user) {
+        int points = 0;
+        if (user.getAnnualIncome() != null) {
+            points += income.lookup(toFixedCeiling(user.getAnnualIncome()));
+        }
+        if (user.getEmploymentStatus() != null) {
+            points += employment.lookup(user.getEmploymentStatus());
+        }
+        if (user.getAge() != null) {
+            points += age.lookup(user.getAge());
+        }
+        if (user.getMaritalStatus() != null) {
+            points += maritalStatus.lookup(user.getMaritalStatus());
+        }
+        if (user.getCreditHistoryLength() != null) {
+            points += creditHistoryLength.lookup(user.getCreditHistoryLength());
+        }
+        if (user.getNumberOfLatePayments() != null) {
+            points += latePayments.lookup(user.getNumberOfLatePayments());
+        }
+        if (user.getCreditUtilization() != null) {
+            points += creditUtilization.lookup(toFixedCeiling(user.getCreditUtilization()));
+        }
+        if (user.getNumberOfCreditInquiries() != null) {
+            points += creditInquiries.lookup(user.getNumberOfCreditInquiries());
+        }
+        if (user.getCreditMix() != null && !user.getCreditMix().isEmpty()) {
+            points += creditMix.lookup(countCreditMixEntries(user.getCreditMix()));
+        }
+        return points;
+    }
+
+    /**
+     * Points that depend on the requested loan: debt-to-income, amount, term and purpose.
+     */
+    public int applicationPoints(BigDecimal annualIncome, BigDecimal existingDebts,
+                                 BigDecimal loanAmount, int loanTerm, String loanPurpose) {
+        int points = 0;
+        if (annualIncome != null && toFixedCeiling(annualIncome) > 0) {
+            points += debtToIncomePoints(annualIncome, existingDebts, loanAmount);
+        }
+        points += amount.lookup(toFixedCeiling(loanAmount));
+        points += term.lookup(loanTerm);
+        points += purpose.lookup(loanPurpose);
+        return points;
+    }
+
+    public int historyPoints(int approvedCount, int rejectedCount, int fullyPaidCount, int defaultedCount) {
+        return fullyPaidCount * fullyPaidPoints
+                + (approvedCount - fullyPaidCount - defaultedCount) * onTimePoints
+                + defaultedCount * defaultedPoints
+                + rejectedCount * rejectedPoints;
+    }
+
+    /**
+     * The DTI bands are whole percentages of the ratio rounded half-up to two decimals, so "dti <= b"
+     * holds exactly when debt / income < (10b + 5) / 1000; the compiled bounds store 10b + 5.
+     */
+    private int debtToIncomePoints(BigDecimal annualIncome, BigDecimal existingDebts, BigDecimal loanAmount) {
+        long incomeFixed = toFixed(annualIncome);
+        long debtFixed = existingDebts != null ? toFixed(existingDebts) : 0L;
+        long amountFixed = toFixed(loanAmount);
+        if (incomeFixed != NOT_FIXED && debtFixed != NOT_FIXED && amountFixed != NOT_FIXED) {
+            // First band whose bound satisfies debt * 1000 < bound * income; monotone because income > 0
+            long scaledDebt = (debtFixed + amountFixed) * 1000L;
+            long[] bounds = debtToIncome.bounds;
+            int low = 0;
+            int high = bounds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (scaledDebt < bounds[mid] * incomeFixed) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low < bounds.length ? debtToIncome.points[low] : debtToIncome.otherwise;
+        }
+        BigDecimal totalDebt = (existingDebts != null ? existingDebts : BigDecimal.ZERO).add(loanAmount);
+        BigDecimal dti = totalDebt.divide(annualIncome, 2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
+        long[] bounds = debtToIncome.bounds;
+        for (int i = 0; i < bounds.length; i++) {
+            if (dti.compareTo(BigDecimal.valueOf((bounds[i] - 5) / 10)) <= 0) {
+                return debtToIncome.points[i];
+            }
+        }
+        return debtToIncome.otherwise;
+    }
+
+    /**
+     * Same count as {@code creditMix.split(",").length}: trailing empty entries are dropped.
+     */
+    static int countCreditMixEntries(String creditMix) {
+        int end = creditMix.length() - 1;
+        while (end >= 0 && creditMix.charAt(end) == ',') {
+            end--;
+        }
+        if (end < 0) {
+            return 0;
+        }
+        int count = 1;
+        for (int i = 0; i < end; i++) {
+            if (creditMix.charAt(i) == ',') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Exact fixed-point value, or {@link #NOT_FIXED} when the value has more than four decimals or a
+     * magnitude of 10^11 or more. Inside that envelope the unscaled value has at most 15 digits, so
+     * {@code doubleValue()} takes its allocation-free path and the scaled result is off by less than 0.25
+     * before rounding.
+     */
+    static long toFixed(BigDecimal value) {
+        int scale = value.scale();
+        if (scale > FIXED_SCALE || value.precision() - scale > FIXED_INTEGER_DIGITS) {
+            return NOT_FIXED;
+        }
+        return Math.round(value.doubleValue() * FIXED_ONE);
+    }
+
+    /**
+     * Fixed-point value rounded towards positive infinity and clamped to +/-10^11. For any bound b with at
+     * most four decimals, {@code value <= b} if and only if {@code toFixedCeiling(value) <= b}.
+     */
+    static long toFixedCeiling(BigDecimal value) {
+        long fixed = toFixed(value);
+        if (fixed != NOT_FIXED) {
+            return fixed;
+        }
+        if (value.precision() - value.scale() > FIXED_INTEGER_DIGITS) {
+            return value.signum() > 0 ? FIXED_LIMIT : -FIXED_LIMIT;
+        }
+        fixed = toFixed(value.setScale(FIXED_SCALE, RoundingMode.CEILING));
+        return fixed != NOT_FIXED ? fixed : FIXED_LIMIT;
+    }
+
+    static long fixed(long wholeUnits) {
+        return wholeUnits * FIXED_ONE;
+    }
+
+    /**
+     * The scoring factors as they were tuned for the original rules.
+     */
+    static FactorTable defaultTable() {
+        FactorTable table = new FactorTable();
+        table.version = DEFAULT_VERSION;
+        // Income: <= 25k, <= 50k, <= 100k, above
+        table.income = new Bands(new long[] {fixed(25_000), fixed(50_000), fixed(100_000)},
+                new int[] {-20, 10, 25}, 50);
+        // Debt-to-income percentage: <= 20, <= 36, <= 50, above
+        table.debtToIncome = Bands.debtToIncome(new long[] {20, 36, 50}, new int[] {0, -25, -50}, -100);
+        table.employment = new Keywords(new String[] {"EMPLOYED", "SELF_EMPLOYED", "UNEMPLOYED"},
+                new int[] {30, 15, -50}, 5);
+        // Age: under 25, 25-30, 31-40, over 40
+        table.age = new Bands(new long[] {24, 30, 40}, new int[] {-20, 0, 10}, 15);
+        table.maritalStatus = new Keywords(new String[] {"MARRIED"}, new int[] {10}, 0);
+        // Credit history in years: none, 1, 2-4, 5-9, 10+
+        table.creditHistoryLength = new Bands(new long[] {0, 1, 4, 9}, new int[] {0, 5, 10, 20}, 30);
+        // Late payments: none scores best, anything else is worse the more there are
+        table.latePayments = new Bands(new long[] {-1, 0, 2, 5}, new int[] {-10, 20, -10, -30}, -50);
+        // Credit utilization percentage: <= 10, <= 30, <= 50, above
+        table.creditUtilization = new Bands(new long[] {fixed(10), fixed(30), fixed(50)},
+                new int[] {20, 10, -10}, -30);
+        table.creditInquiries = new Bands(new long[] {-1, 0, 2, 5}, new int[] {-5, 10, -5, -15}, -25);
+        // Number of distinct credit types
+        table.creditMix = new Bands(new long[] {0, 1, 2}, new int[] {0, 5, 10}, 15);
+        table.fullyPaidPoints = 20;
+        table.onTimePoints = 10;
+        table.defaultedPoints = -50;
+        table.rejectedPoints = -25;
+        // Requested amount: <= 10k, <= 25k, <= 50k, above
+        table.amount = new Bands(new long[] {fixed(10_000), fixed(25_000), fixed(50_000)},
+                new int[] {0, -25, -50}, -75);
+        // Term in months: <= 12, <= 24, <= 36, <= 60, above
+        table.term = new Bands(new long[] {12, 24, 36, 60}, new int[] {0, -5, -10, -15}, -25);
+        table.purpose = new Keywords(new String[] {"business", "personal", "home purchase", "education"},
+                new int[] {-40, 10, 20, 15}, 0);
+        return table;
+    }
+
+    /**
+     * Mutable description of every factor, compiled into an immutable engine.
+     */
+    static final class FactorTable {
+        int version;
+        Bands income;
+        Bands debtToIncome;
+        Bands age;
+        Bands creditHistoryLength;
+        Bands latePayments;
+        Bands creditUtilization;
+        Bands creditInquiries;
+        Bands creditMix;
+        Bands amount;
+        Bands term;
+        Keywords employment;
+        Keywords maritalStatus;
+        Keywords purpose;
+        int fullyPaidPoints;
+        int onTimePoints;
+        int defaultedPoints;
+        int rejectedPoints;
+
+        CreditScoringEngine compile() {
+            return new CreditScoringEngine(this);
+        }
+    }
+
+    /**
+     * Ascending inclusive upper bounds: a value scores the points of the first bound it does not exceed,
+     * or {@code otherwise} when it exceeds them all.
+     */
+    static final class Bands {
+        final long[] bounds;
+        final int[] points;
+        final int otherwise;
+
+        Bands(long[] bounds, int[] points, int otherwise) {
+            if (bounds.length != points.length) {
+                throw new IllegalArgumentException("Each band needs exactly one bound and one score");
+            }
+            for (int i = 1; i < bounds.length; i++) {
+                if (bounds[i] <= bounds[i - 1]) {
+                    throw new IllegalArgumentException("Band bounds must be strictly ascending");
+                }
+            }
+            this.bounds = bounds.clone();
+            this.points = points.clone();
+            this.otherwise = otherwise;
+        }
+
+        static Bands debtToIncome(long[] percentBounds, int[] points, int otherwise) {
+            long[] perMille = new long[percentBounds.length];
+            for (int i = 0; i < percentBounds.length; i++) {
+                perMille[i] = percentBounds[i] * 10 + 5;
+            }
+            return new Bands(perMille, points, otherwise);
+        }
+
+        int lookup(long value) {
+            int low = 0;
+            int high = bounds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (bounds[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low < bounds.length ? points[low] : otherwise;
+        }
+    }
+
+    /**
+     * Case-insensitive keyword matches, scoring {@code otherwise} for any unlisted value.
+     */
+    static final class Keywords {
+        final String[] keys;
+        final int[] points;
+        final int otherwise;
+
+        Keywords(String[] keys, int[] points, int otherwise) {
+            if (keys.length != points.length) {
+                throw new IllegalArgumentException("Each keyword needs exactly one score");
+            }
+            this.keys = keys.clone();
+            this.points = points.clone();
+            this.otherwise = otherwise;
+        }
+
+        int lookup(String value) {
+            if (value != null) {
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i].equalsIgnoreCase(value)) {
+                        return points[i];
+                    }
+                }
+            }
+            return otherwise;
+        }
+    }
+}
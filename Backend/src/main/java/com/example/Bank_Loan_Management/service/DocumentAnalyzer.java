@@ -0,0 +1,199 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * The content checks run on each upload: the real content type from the file's magic bytes, a page count,
+ * a PNG thumbnail for images and the text of plain-text files. Uses only the JDK; PDFs get a page count
+ * from their page objects but no thumbnail or text, which would need a PDF renderer.
+ */
+final class DocumentAnalyzer {
+
+    static final int THUMBNAIL_SIZE = 256;
+    // 40 megapixels, e.g. 8000 x 5000; decoding takes 4 bytes a pixel
+    static final long MAX_IMAGE_PIXELS = 40_000_000L;
+    private static final int MAX_TEXT_CHARS = 1_000_000;
+
+    private static final Pattern PDF_PAGE = Pattern.compile("/Type\\s*/Page(?![a-zA-Z])");
+    private static final Pattern PDF_PAGE_COUNT = Pattern.compile("/Count\\s+(\\d+)");
+
+    private DocumentAnalyzer() {
+    }
+
+    static Analysis analyze(byte[] content) throws IOException {
+        String type = sniff(content);
+        switch (type) {
+            case "application/pdf":
+                return new Analysis(type, countPdfPages(content), null, null);
+            case "image/png":
+            case "image/jpeg":
+            case "image/gif":
+            case "image/bmp":
+            case "image/tiff":
+                return new Analysis(type, 1, thumbnail(content), null);
+            case "text/plain":
+                String text = new String(content, StandardCharsets.UTF_8);
+                return new Analysis(type, null, null, text.length() > MAX_TEXT_CHARS ? text.substring(0, MAX_TEXT_CHARS) : text);
+            default:
+                return new Analysis(type, null, null, null);
+        }
+    }
+
+    static String sniff(byte[] content) {
+        if (startsWith(content, '%', 'P', 'D', 'F', '-')) {
+            return "application/pdf";
+        }
+        if (startsWith(content, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(content, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(content, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(content, 'I', 'I', '*', 0) || startsWith(content, 'M', 'M', 0, '*')) {
+            return "image/tiff";
+        }
+        if (startsWith(content, 'B', 'M')) {
+            return "image/bmp";
+        }
+        if (startsWith(content, 'P', 'K', 3, 4)) {
+            // Also covers Office documents, which are zip containers
+            return "application/zip";
+        }
+        return isText(content) ? "text/plain" : "application/octet-stream";
+    }
+
+    private static boolean startsWith(byte[] content, int... prefix) {
+        if (content.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((content[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isText(byte[] content) {
+        for (byte b : content) {
+            if (b == 0) {
+                return false;
+            }
+        }
+        try {
+            StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(content));
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Page objects in the file, or the largest page tree count when the pages sit in compressed object
+     * streams; null when neither is visible.
+     */
+    private static Integer countPdfPages(byte[] content) {
+        // ISO-8859-1 maps every byte to one char, so binary streams cannot break the scan
+        String raw = new String(content, StandardCharsets.ISO_8859_1);
+        int pages = 0;
+        Matcher page = PDF_PAGE.matcher(raw);
+        while (page.find()) {
+            pages++;
+        }
+        if (pages > 0) {
+            return pages;
+        }
+        int count = 0;
+        Matcher tree = PDF_PAGE_COUNT.matcher(raw);
+        while (tree.find()) {
+            try {
+                count = Math.max(count, Integer.parseInt(tree.group(1)));
+            } catch (NumberFormatException e) {
+                // Not a page count
+            }
+        }
+        return count > 0 ? count : null;
+    }
+
+    /**
+     * A PNG no larger than {@value #THUMBNAIL_SIZE} pixels a side, or null if the image cannot be read or
+     * has more than {@value #MAX_IMAGE_PIXELS} pixels. The size is read from the header before any pixels
+     * are decoded, so a small file claiming huge dimensions cannot exhaust the heap.
+     */
+    private static byte[] thumbnail(byte[] content) throws IOException {
+        BufferedImage image;
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long sourceWidth = reader.getWidth(0);
+                long sourceHeight = reader.getHeight(0);
+                if (sourceWidth <= 0 || sourceHeight <= 0 || sourceWidth * sourceHeight > MAX_IMAGE_PIXELS) {
+                    return null;
+                }
+                // Decode only every n-th pixel when the image is much larger than the thumbnail
+                int subsampling = (int) Math.max(1, Math.max(sourceWidth, sourceHeight) / (THUMBNAIL_SIZE * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+        double scale = Math.min(1.0, (double) THUMBNAIL_SIZE / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "png", out);
+        return out.toByteArray();
+    }
+
+    static final class Analysis {
+        final String contentType;
+        final Integer pageCount;
+        final byte[] thumbnail;
+        final String text;
+
+        Analysis(String contentType, Integer pageCount, byte[] thumbnail, String text) {
+            this.contentType = contentType;
+            this.pageCount = pageCount;
+            this.thumbnail = thumbnail;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Which uploads are stored gzip-compressed, and what that costs and saves.
+ *
+ * Formats that are already compressed (JPEG, PNG, zip-based Office files) are stored as they are. Text,
+ * PDFs and uncompressed images are compressed when written; ContentStore keeps the compressed copy only
+ * if it saves at least a tenth. The counters, per policy, are served at {@code /admin/storage/compression}.
+ */
+@Service
+public class DocumentCompression {
+
+    // Outside the Deflater levels, which include DEFAULT_COMPRESSION (-1)
+    public static final int NO_COMPRESSION = Integer.MIN_VALUE;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    // First match wins; content types are compared without parameters, by prefix
+    private final List<Policy> policies = List.of(
+            new Policy("text", Deflater.DEFAULT_COMPRESSION, "text/", "application/json", "application/xml",
+                    "application/rtf", "application/msword"),
+            new Policy("pdf", Deflater.DEFAULT_COMPRESSION, "application/pdf"),
+            new Policy("uncompressed-image", Deflater.DEFAULT_COMPRESSION, "image/bmp", "image/tiff", "image/svg+xml"),
+            new Policy("precompressed", NO_COMPRESSION, "image/", "video/", "audio/", "application/zip",
+                    "application/gzip", "application/vnd.openxmlformats-officedocument."),
+            new Policy("other", NO_COMPRESSION));
+
+    /**
+     * The Deflater level for a declared content type, or {@link #NO_COMPRESSION}.
+     */
+    public int levelFor(String contentType) {
+        return policyFor(contentType).level;
+    }
+
+    void recordWrite(String contentType, ContentStore.StoredContent stored) {
+        if (!stored.isWritten()) {
+            // Deduplicated; nothing was compressed or written
+            return;
+        }
+        Policy policy = policyFor(contentType);
+        policy.files.incrementAndGet();
+        policy.originalBytes.addAndGet(stored.getSize());
+        policy.storedBytes.addAndGet(stored.getStoredSize());
+        policy.compressCpuNanos.addAndGet(stored.getCompressionCpuNanos());
+        if (stored.getEncoding() != null) {
+            policy.compressedFiles.incrementAndGet();
+        }
+    }
+
+    public void recordPassThrough(String contentType, long bytes) {
+        Policy policy = policyFor(contentType);
+        policy.passThroughResponses.incrementAndGet();
+        policy.passThroughBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Decodes a gzip stream, counting the bytes produced and the CPU time spent inflating them.
+     */
+    public InputStream decoding(InputStream compressed, String contentType) throws IOException {
+        Policy policy = policyFor(contentType);
+        policy.decodedResponses.incrementAndGet();
+        return new FilterInputStream(new GZIPInputStream(compressed, 64 * 1024)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                long start = cpuNanos();
+                int read = super.read(buffer, offset, length);
+                policy.decompressCpuNanos.addAndGet(cpuNanos() - start);
+                if (read > 0) {
+                    policy.decodedBytes.addAndGet(read);
+                }
+                return read;
+            }
+        };
+    }
+
+    public List<PolicyStats> getStats() {
+        List<PolicyStats> stats = new ArrayList<>(policies.size());
+        for (Policy policy : policies) {
+            stats.add(new PolicyStats(policy));
+        }
+        return stats;
+    }
+
+    private Policy policyFor(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT).split(";", 2)[0].trim();
+        for (Policy policy : policies) {
+            if (policy.matches(type)) {
+                return policy;
+            }
+        }
+        return policies.get(policies.size() - 1);
+    }
+
+    /**
+     * CPU time of the calling thread, so compression cost is not inflated by waiting on disk or clients.
+     */
+    static long cpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private static final class Policy {
+        final String name;
+        final int level;
+        final String[] prefixes;
+        final AtomicLong files = new AtomicLong();
+        final AtomicLong compressedFiles = new AtomicLong();
+        final AtomicLong originalBytes = new AtomicLong();
+        final AtomicLong storedBytes = new AtomicLong();
+        final AtomicLong compressCpuNanos = new AtomicLong();
+        final AtomicLong decodedResponses = new AtomicLong();
+        final AtomicLong decodedBytes = new AtomicLong();
+        final AtomicLong decompressCpuNanos = new AtomicLong();
+        final AtomicLong passThroughResponses = new AtomicLong();
+        final AtomicLong passThroughBytes = new AtomicLong();
+
+        Policy(String name, int level, String... prefixes) {
+            this.name = name;
+            this.level = level;
+            this.prefixes = prefixes;
+        }
+
+        // The catch-all has no prefixes and matches everything
+        boolean matches(String type) {
+            if (prefixes.length == 0) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (type.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Counters for one policy since startup.
+     */
+    public static class PolicyStats {
+        private final String policy;
+        private final boolean compressing;
+        private final long files;
+        private final long compressedFiles;
+        private final long originalBytes;
+        private final long storedBytes;
+        private final long compressCpuMillis;
+        private final long decodedResponses;
+        private final long decodedBytes;
+        private final long decompressCpuMillis;
+        private final long passThroughResponses;
+        private final long passThroughBytes;
+
+        PolicyStats(Policy policy) {
+            this.policy = policy.name;
+            this.compressing = policy.level != NO_COMPRESSION;
+            this.files = policy.files.get();
+            this.compressedFiles = policy.compressedFiles.get();
+            this.originalBytes = policy.originalBytes.get();
+            this.storedBytes = policy.storedBytes.get();
+            this.compressCpuMillis = policy.compressCpuNanos.get() / 1_000_000;
+            this.decodedResponses = policy.decodedResponses.get();
+            this.decodedBytes = policy.decodedBytes.get();
+            this.decompressCpuMillis = policy.decompressCpuNanos.get() / 1_000_000;
+            this.passThroughResponses = policy.passThroughResponses.get();
+            this.passThroughBytes = policy.passThroughBytes.get();
+        }
+
+        public String getPolicy() { return policy; }
+        public boolean isCompressing() { return compressing; }
+        public long getFiles() { return files; }
+        public long getCompressedFiles() { return compressedFiles; }
+        public long getOriginalBytes() { return originalBytes; }
+        public long getStoredBytes() { return storedBytes; }
+        public long getCompressCpuMillis() { return compressCpuMillis; }
+        public long getDecodedResponses() { return decodedResponses; }
+        public long getDecodedBytes() { return decodedBytes; }
+        public long getDecompressCpuMillis() { return decompressCpuMillis; }
+        public long getPassThroughResponses() { return passThroughResponses; }
+        public long getPassThroughBytes() { return passThroughBytes; }
+
+        // Stored bytes per original byte; 1.0 when nothing was written
+        public double getCompressionRatio() {
+            return originalBytes == 0 ? 1.0 : (double) storedBytes / originalBytes;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Bank_Loan_Management.entity.Document;
+import com.example.Bank_Loan_Management.entity.DocumentProcessingJob;
+import com.example.Bank_Loan_Management.repository.DocumentProcessingJobRepository;
+import com.example.Bank_Loan_Management.repository.DocumentRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Post-upload processing: content type sniffing, page count, thumbnail and text extraction, run off the
+ * request path.
+ *
+ * Uploads enqueue a job row in their own transaction, so accepted work survives a restart. A poller claims
+ * due jobs only as fast as the bounded worker pool has room for them, which keeps a burst of uploads
+ * queued in the database instead of in memory. Failed jobs are retried with exponential backoff and give
+ * up after {@value #MAX_ATTEMPTS} attempts, leaving the document PROCESSING_FAILED.
+ */
+@Service
+public class DocumentProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentProcessingService.class);
+
+    private static final int WORKER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int WORK_QUEUE_SIZE = 32;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(10);
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(2);
+
+    private final DocumentProcessingJobRepository jobRepository;
+    private final DocumentRepository documentRepository;
+    private final ContentStore contentStore;
+    private final ChangeVersionService changeVersionService;
+    private final NotificationService notificationService;
+    private final DocumentVerificationCounts verificationCounts;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ThreadPoolExecutor workers = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(WORK_QUEUE_SIZE), runnable -> {
+                Thread thread = new Thread(runnable, "document-processing-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "document-processing-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DocumentProcessingService(DocumentProcessingJobRepository jobRepository,
+                                     DocumentRepository documentRepository,
+                                     ContentStore contentStore,
+                                     ChangeVersionService changeVersionService,
+                                     NotificationService notificationService,
+                                     DocumentVerificationCounts verificationCounts,
+                                     PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.documentRepository = documentRepository;
+        this.contentStore = contentStore;
+        this.changeVersionService = changeVersionService;
+        this.notificationService = notificationService;
+        this.verificationCounts = verificationCounts;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int requeued = jobRepository.transitionAll(DocumentProcessingJob.Status.RUNNING, DocumentProcessingJob.Status.PENDING);
+        if (requeued > 0) {
+            logger.info("Requeued {} document processing jobs interrupted by the last shutdown", requeued);
+        }
+        poller.scheduleWithFixedDelay(this::poll, 0, POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues processing for a newly stored document. Call inside the upload transaction; the poller is
+     * nudged once it commits so the job normally starts right away.
+     */
+    public void enqueue(Document document) {
+        DocumentProcessingJob job = new DocumentProcessingJob();
+        job.setDocumentId(document.getId());
+        job.setStatus(DocumentProcessingJob.Status.PENDING);
+        job.setAttempts(0);
+        job.setNextAttemptAt(LocalDateTime.now());
+        job.setCreatedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    private void wakeUp() {
+        try {
+            poller.execute(this::poll);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the job stays queued for the next start
+        }
+    }
+
+    private void poll() {
+        try {
+            int capacity = workers.getQueue().remainingCapacity();
+            if (capacity == 0) {
+                return;
+            }
+            List<Long> due = jobRepository.findDueIds(DocumentProcessingJob.Status.PENDING, LocalDateTime.now(),
+                    Limit.of(capacity));
+            for (Long jobId : due) {
+                if (jobRepository.transition(jobId, DocumentProcessingJob.Status.PENDING, DocumentProcessingJob.Status.RUNNING) == 0) {
+                    continue;
+                }
+                try {
+                    workers.execute(() -> run(jobId));
+                } catch (RejectedExecutionException e) {
+                    jobRepository.transition(jobId, DocumentProcessingJob.Status.RUNNING, DocumentProcessingJob.Status.PENDING);
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Document processing poll failed", e);
+        }
+    }
+
+    private void run(Long jobId) {
+        DocumentProcessingJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        try {
+            Document document = documentRepository.findById(job.getDocumentId())
+                    .orElseThrow(() -> new RuntimeException("Document " + job.getDocumentId() + " not found"));
+            if (document.getContentHash() == null) {
+                throw new RuntimeException("Document " + document.getId() + " has no stored content");
+            }
+            long start = System.nanoTime();
+            // Uploads are capped at DocumentService.MAX_DOCUMENT_BYTES, so the whole file fits in memory
+            byte[] content;
+            try (InputStream in = contentStore.open(document.getContentHash(), document.getContentEncoding())) {
+                content = in.readAllBytes();
+            }
+            DocumentAnalyzer.Analysis analysis = DocumentAnalyzer.analyze(content);
+            transactionTemplate.executeWithoutResult(status -> complete(job, document, analysis));
+            logger.info("Processed document {} as {} ({} pages) in {} ms", document.getId(), analysis.contentType,
+                    analysis.pageCount, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (Throwable e) {
+            // Errors too, e.g. an OutOfMemoryError decoding a hostile file: the job must not stay RUNNING
+            try {
+                transactionTemplate.executeWithoutResult(status -> fail(job, e));
+            } catch (RuntimeException failure) {
+                logger.error("Could not record the failure of document processing job {}; it is retried after a restart",
+                        jobId, failure);
+            }
+        }
+    }
+
+    private void complete(DocumentProcessingJob job, Document document, DocumentAnalyzer.Analysis analysis) {
+        Long documentId = document.getId();
+        String thumbnailHash = null;
+        String textHash = null;
+        try {
+            if (analysis.thumbnail != null) {
+                thumbnailHash = contentStore.store(new ByteArrayInputStream(analysis.thumbnail), Long.MAX_VALUE).getHash();
+            }
+            if (analysis.text != null) {
+                byte[] text = analysis.text.getBytes(StandardCharsets.UTF_8);
+                textHash = contentStore.store(new ByteArrayInputStream(text), Long.MAX_VALUE).getHash();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Column updates rather than an entity save, so a manager's concurrent decision is never overwritten
+        documentRepository.recordAnalysis(documentId, analysis.contentType, analysis.pageCount, thumbnailHash, textHash);
+        // A manager may already have decided on it; only a document still being processed becomes reviewable
+        if (documentRepository.transition(documentId, Document.Status.PROCESSING, Document.Status.UPLOADED) > 0) {
+            verificationCounts.statusChanged(document.getDocumentType(), Document.Status.PROCESSING, Document.Status.UPLOADED);
+            notificationService.sendDocumentStatusUpdate(document.getUser().getId(), documentId, "UPLOADED");
+        }
+        job.setStatus(DocumentProcessingJob.Status.DONE);
+        job.setLastError(null);
+        jobRepository.save(job);
+        changeVersionService.changed(ChangeVersionService.Collection.DOCUMENTS);
+    }
+
+    private void fail(DocumentProcessingJob job, Throwable error) {
+        int attempts = job.getAttempts() + 1;
+        job.setAttempts(attempts);
+        String message = error.getMessage() != null ? error.getMessage() : error.toString();
+        job.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        if (attempts >= MAX_ATTEMPTS) {
+            logger.error("Giving up on document {} after {} processing attempts", job.getDocumentId(), attempts, error);
+            job.setStatus(DocumentProcessingJob.Status.FAILED);
+            Long documentId = job.getDocumentId();
+            if (documentRepository.transition(documentId, Document.Status.PROCESSING, Document.Status.PROCESSING_FAILED) > 0) {
+                for (DocumentRepository.DocumentState state : documentRepository.findStates(List.of(documentId))) {
+                    verificationCounts.statusChanged(state.getDocumentType(), Document.Status.PROCESSING,
+                            Document.Status.PROCESSING_FAILED);
+                    notificationService.sendDocumentStatusUpdate(state.getUserId(), documentId, "PROCESSING_FAILED");
+                }
+                changeVersionService.changed(ChangeVersionService.Collection.DOCUMENTS);
+            }
+        } else {
+            // 10 s, 20 s, 40 s, ...
+            Duration delay = FIRST_RETRY_DELAY.multipliedBy(1L << (attempts - 1));
+            logger.warn("Processing document {} failed (attempt {}), retrying in {} s: {}", job.getDocumentId(), attempts,
+                    delay.toSeconds(), message);
+            job.setStatus(DocumentProcessingJob.Status.PENDING);
+            job.setNextAttemptAt(LocalDateTime.now().plus(delay));
+        }
+        jobRepository.save(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        workers.shutdownNow();
+    }
+}
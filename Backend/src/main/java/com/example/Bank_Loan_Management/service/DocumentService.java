@@ -1,29 +1,45 @@
 package com.example.Bank_Loan_Management.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.Bank_Loan_Management.entity.ContentBlob;
 import com.example.Bank_Loan_Management.entity.Document;
 import com.example.Bank_Loan_Management.entity.LoanApplication;
 import com.example.Bank_Loan_Management.entity.User;
 import com.example.Bank_Loan_Management.repository.DocumentRepository;
+import com.example.Bank_Loan_Management.repository.KeysetPage;
 import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
 import com.example.Bank_Loan_Management.repository.UserRepository;
 
 @Service
 public class DocumentService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_DECISIONS = 500;
+    // Matches spring.servlet.multipart.max-file-size
+    public static final long MAX_DOCUMENT_BYTES = 10L * 1024 * 1024;
+
     @Autowired
     private DocumentRepository documentRepository;
 
@@ -33,31 +49,72 @@ public class DocumentService {
     @Autowired
     private UserRepository userRepository;
 
-    private final Path root = Paths.get("uploads");
+    @Autowired
+    private ChangeVersionService changeVersionService;
 
-    public DocumentService() {
-        try {
-            Files.createDirectories(root);
-        } catch (IOException e) {
-            throw new RuntimeException("Could not initialize folder for upload!");
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private DocumentProcessingService documentProcessingService;
+
+    @Autowired
+    private DocumentVerificationCounts verificationCounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DocumentCompression documentCompression;
+
+    @Transactional
+    public Document uploadDocument(User user, MultipartFile file, String documentType) throws IOException {
+        ContentStore.StoredContent stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = contentStore.store(in, MAX_DOCUMENT_BYTES, documentCompression.levelFor(file.getContentType()));
         }
+        return saveDocument(user, stored, file.getOriginalFilename(), file.getContentType(), documentType);
     }
 
-    public Document uploadDocument(User user, MultipartFile file, String documentType) throws IOException {
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = root.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath);
+    /**
+     * Completes an upload whose body was streamed into the content store by the caller.
+     */
+    @Transactional
+    public Document uploadDocument(User user, ContentStore.PendingContent content, String fileName, String contentType,
+                                   String documentType) throws IOException {
+        return saveDocument(user, contentStore.commit(content, documentCompression.levelFor(contentType)), fileName,
+                contentType, documentType);
+    }
 
+    private Document saveDocument(User user, ContentStore.StoredContent stored, String fileName, String contentType,
+                                  String documentType) {
         Document document = new Document();
         document.setUser(user);
         document.setDocumentType(documentType);
-        document.setFileName(file.getOriginalFilename());
-        document.setFilePath(filePath.toString());
-        document.setContentType(file.getContentType());
-        document.setFileSize(file.getSize());
-        document.setStatus(Document.Status.UPLOADED);
+        document.setFileName(fileName);
+        document.setContentHash(stored.getHash());
+        document.setContentType(contentType);
+        document.setFileSize(stored.getSize());
+        document.setContentEncoding(stored.getEncoding());
+        documentCompression.recordWrite(contentType, stored);
+        // Reviewable once DocumentProcessingService has checked it; none of that work runs on this request
+        document.setStatus(Document.Status.PROCESSING);
 
-        return documentRepository.save(document);
+        Document saved = documentRepository.save(document);
+        verificationCounts.documentAdded(user.getId(), documentType);
+        documentProcessingService.enqueue(saved);
+        changeVersionService.changed(ChangeVersionService.Collection.DOCUMENTS);
+        return saved;
+    }
+
+    /**
+     * Starts a streamed upload; feed it and then pass it to {@link #uploadDocument(User, ContentStore.PendingContent, String, String, String)}.
+     */
+    public ContentStore.PendingContent beginUpload(String expectedHash) throws IOException {
+        return contentStore.begin(MAX_DOCUMENT_BYTES, expectedHash);
     }
 
     public List<Document> getDocumentsByLoanApplication(Long loanApplicationId) {
@@ -68,63 +125,151 @@ public class DocumentService {
         return documentRepository.findByUser(user);
     }
 
+    @Transactional
     public Document verifyDocument(Long documentId) {
-        Document document = documentRepository.findById(documentId)
+        return decideDocument(documentId, Document.Status.VERIFIED);
+    }
+
+    @Transactional
+    public Document rejectDocument(Long documentId) {
+        return decideDocument(documentId, Document.Status.REJECTED);
+    }
+
+    // A batch of one, so the status change and the verification counts use the same guarded update
+    private Document decideDocument(Long documentId, Document.Status status) {
+        DecisionResult result = decideDocuments(List.of(new Decision(documentId, status))).get(0);
+        if (!result.isApplied()) {
+            throw new RuntimeException(result.getError());
+        }
+        return documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
-        document.setStatus(Document.Status.VERIFIED);
-        Document saved = documentRepository.save(document);
+    }
 
-        // Check if all document types have at least one verified document
-        List<Document> userDocuments = documentRepository.findByUser(document.getUser());
-
-        // Group documents by type and check if each type has at least one verified document
-        boolean allTypesVerified = userDocuments.stream()
-                .collect(Collectors.groupingBy(Document::getDocumentType))
-                .entrySet()
-                .stream()
-                .allMatch(entry -> entry.getValue().stream()
-                        .anyMatch(doc -> doc.getStatus() == Document.Status.VERIFIED));
-
-        if (allTypesVerified) {
-            // Update all loan applications for this user to mark documents as verified and change status to VERIFIED
-            List<LoanApplication> userApplications = loanApplicationRepository.findByUser(document.getUser());
-            for (LoanApplication application : userApplications) {
-                application.setDocumentsVerified(true);
-                // Change status from APPLIED to VERIFIED so managers can approve
-                if (application.getStatus() == LoanApplication.Status.APPLIED) {
-                    application.setStatus(LoanApplication.Status.VERIFIED);
-                }
-                loanApplicationRepository.save(application);
+    /**
+     * Applies many review decisions in one transaction: one read of the documents, one batch of status
+     * updates, and one verification recompute per borrower rather than per document. A borrower with a
+     * rejection in the batch has their loans marked not verified; otherwise their APPLIED loans are promoted
+     * once every document type has a verified document.
+     *
+     * @return one result per decision, in the same order
+     */
+    @Transactional
+    public List<DecisionResult> decideDocuments(List<Decision> decisions) {
+        if (decisions.isEmpty()) {
+            return List.of();
+        }
+        if (decisions.size() > MAX_DECISIONS) {
+            throw new IllegalArgumentException("At most " + MAX_DECISIONS + " decisions per request");
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Decision decision : decisions) {
+            if (decision.getDocumentId() == null
+                    || (decision.getStatus() != Document.Status.VERIFIED && decision.getStatus() != Document.Status.REJECTED)) {
+                throw new IllegalArgumentException("Each decision needs a document id and VERIFIED or REJECTED");
             }
+            ids.add(decision.getDocumentId());
+        }
+        Map<Long, DocumentRepository.DocumentState> states = new HashMap<>();
+        for (DocumentRepository.DocumentState state : documentRepository.findStates(ids)) {
+            states.put(state.getId(), state);
         }
 
-        return saved;
-    }
-
-    public Document rejectDocument(Long documentId) {
-        Document document = documentRepository.findById(documentId)
-                .orElseThrow(() -> new RuntimeException("Document not found"));
-        document.setStatus(Document.Status.REJECTED);
-        Document saved = documentRepository.save(document);
+        // Each document's update only applies if nobody else changed its status since it was read
+        List<DocumentRepository.DocumentState> applied = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        List<DecisionResult> results = new ArrayList<>(decisions.size());
+        for (Decision decision : decisions) {
+            DocumentRepository.DocumentState state = states.get(decision.getDocumentId());
+            if (state == null) {
+                results.add(DecisionResult.failed(decision, "Document not found"));
+            } else if (!seen.add(decision.getDocumentId())) {
+                results.add(DecisionResult.failed(decision, "Duplicate document id"));
+            } else {
+                applied.add(state);
+                updates.add(new Object[] {decision.getStatus().name(), state.getId(), state.getStatus().name()});
+                results.add(null);
+            }
+        }
+        int[] counts = updates.isEmpty() ? new int[0]
+                : jdbcTemplate.batchUpdate("UPDATE documents SET status = ? WHERE id = ? AND status = ?", updates);
 
-        // When a document is rejected, mark all loan applications for this user as not verified
-        List<LoanApplication> userApplications = loanApplicationRepository.findByUser(document.getUser());
-        for (LoanApplication application : userApplications) {
-            application.setDocumentsVerified(false);
-            loanApplicationRepository.save(application);
+        Map<Long, Map<String, Integer>> verifiedDeltas = new HashMap<>();
+        Map<Document.Status, Map<String, Integer>> statusDeltas = new HashMap<>();
+        Set<Long> rejectedUsers = new HashSet<>();
+        Set<Long> affectedUsers = new LinkedHashSet<>();
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != null) {
+                continue;
+            }
+            Decision decision = decisions.get(i);
+            DocumentRepository.DocumentState state = applied.get(next);
+            // Drivers that cannot report row counts return SUCCESS_NO_INFO (-2), which is not a conflict
+            if (counts[next++] == 0) {
+                results.set(i, DecisionResult.failed(decision, "Document status changed concurrently"));
+                continue;
+            }
+            int delta = (decision.getStatus() == Document.Status.VERIFIED ? 1 : 0)
+                    - (state.getStatus() == Document.Status.VERIFIED ? 1 : 0);
+            verifiedDeltas.computeIfAbsent(state.getUserId(), userId -> new HashMap<>())
+                    .merge(state.getDocumentType(), delta, Integer::sum);
+            statusDeltas.computeIfAbsent(state.getStatus(), from -> new HashMap<>())
+                    .merge(state.getDocumentType(), -1, Integer::sum);
+            statusDeltas.computeIfAbsent(decision.getStatus(), to -> new HashMap<>())
+                    .merge(state.getDocumentType(), 1, Integer::sum);
+            affectedUsers.add(state.getUserId());
+            if (decision.getStatus() == Document.Status.REJECTED) {
+                rejectedUsers.add(state.getUserId());
+            }
+            notificationService.sendDocumentStatusUpdate(state.getUserId(), state.getId(), decision.getStatus().name());
+            results.set(i, DecisionResult.succeeded(decision));
+        }
+        if (affectedUsers.isEmpty()) {
+            return results;
         }
+        verificationCounts.verifiedChanged(verifiedDeltas);
+        verificationCounts.statusesChanged(statusDeltas);
+        for (Long userId : affectedUsers) {
+            if (rejectedUsers.contains(userId)) {
+                loanApplicationRepository.setDocumentsVerified(userId, false);
+            } else {
+                promoteIfAllTypesVerified(userId);
+            }
+        }
+        changeVersionService.changed(ChangeVersionService.Collection.DOCUMENTS, ChangeVersionService.Collection.LOANS);
+        return results;
+    }
 
-        return saved;
+    // Once every document type has a verified document, APPLIED loans move to VERIFIED so managers can approve
+    private void promoteIfAllTypesVerified(Long userId) {
+        if (!verificationCounts.allTypesVerified(userId)) {
+            return;
+        }
+        List<Long> promoted = loanApplicationRepository.findIdsByUserIdAndStatus(userId, LoanApplication.Status.APPLIED);
+        loanApplicationRepository.promoteApplied(userId);
+        loanApplicationRepository.setDocumentsVerified(userId, true);
+        for (Long applicationId : promoted) {
+            notificationService.sendLoanStatusUpdate(userId, applicationId, "VERIFIED");
+        }
     }
 
+    @Transactional
     public void associateDocumentsWithLoan(User user, LoanApplication application) {
         List<Document> userDocuments = documentRepository.findByUser(user);
+        boolean attached = false;
         for (Document doc : userDocuments) {
             if (doc.getLoanApplication() == null) {
                 doc.setLoanApplication(application);
                 documentRepository.save(doc);
+                attached = true;
             }
         }
+        if (attached) {
+            // The loan may already be closed, which makes these documents cold from now on
+            loanApplicationRepository.touch(application.getId(), LocalDateTime.now());
+        }
+        changeVersionService.changed(ChangeVersionService.Collection.DOCUMENTS);
     }
 
     public List<Document> getAllDocuments() {
@@ -133,20 +278,227 @@ public class DocumentService {
         return documents;
     }
 
-    public Resource downloadDocument(Long documentId) throws IOException {
-        System.out.println("DocumentService.downloadDocument() called for ID: " + documentId);
+    public List<DocumentRepository.DocumentListing> getDocumentListings() {
+        return documentRepository.findAllListings();
+    }
+
+    /**
+     * One page of documents awaiting a decision, oldest first. The cursor is the last id of the previous page.
+     */
+    public KeysetPage<DocumentRepository.DocumentListing> getReviewQueuePage(Document.Status status, String documentType,
+                                                                             Long userId, String cursor, Integer limit) {
+        long afterId;
+        try {
+            afterId = cursor == null || cursor.isBlank() ? 0L : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        Limit rowLimit = Limit.of(pageSize + 1);
+        List<DocumentRepository.DocumentListing> rows;
+        if (userId != null && documentType != null) {
+            rows = documentRepository.findReviewQueueByUserAndType(status, userId, documentType, afterId, rowLimit);
+        } else if (userId != null) {
+            rows = documentRepository.findReviewQueueByUser(status, userId, afterId, rowLimit);
+        } else if (documentType != null) {
+            rows = documentRepository.findReviewQueueByType(status, documentType, afterId, rowLimit);
+        } else {
+            rows = documentRepository.findReviewQueue(status, afterId, rowLimit);
+        }
+        return KeysetPage.of(rows, pageSize, document -> Long.toString(document.getId()));
+    }
+
+    /**
+     * The number of documents in the review queue. The whole queue, or one document type's part of it, is
+     * read from the maintained per-status counts; one borrower's part is counted through the
+     * (status, user_id, id) index, which only spans that borrower's documents.
+     */
+    public long estimateReviewQueueSize(Document.Status status, String documentType, Long userId) {
+        if (userId == null) {
+            return verificationCounts.countInStatus(status, documentType);
+        }
+        return documentType == null
+                ? documentRepository.countBorrowerReviewQueue(status, userId)
+                : documentRepository.countBorrowerReviewQueueByType(status, userId, documentType);
+    }
+
+    /**
+     * Locates a document's stored bytes with a single primary-key lookup.
+     */
+    public DocumentContent downloadDocument(Long documentId) throws IOException {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
-        System.out.println("Found document: " + document.getFileName() + ", path: " + document.getFilePath());
-
+        if (document.getContentHash() != null) {
+            // Its own file while hot, a stretch of a pack segment once cold; either way no further lookup
+            ContentStore.Location location;
+            try {
+                location = contentStore.locate(document.getContentHash(), document.getContentEncoding());
+            } catch (NoSuchFileException e) {
+                throw new RuntimeException("Could not read the file!");
+            }
+            // Stored content never changes under its hash, but the served type does once processing sniffs it
+            boolean typeFinal = document.getStatus() != Document.Status.PROCESSING;
+            String eTag = "\"" + document.getContentHash() + (typeFinal ? "" : "-unsniffed") + "\"";
+            return new DocumentContent(document, location, eTag, typeFinal);
+        }
         Path filePath = Paths.get(document.getFilePath());
-        Resource resource = new UrlResource(filePath.toUri());
-        System.out.println("File path exists: " + filePath.toFile().exists() + ", resource exists: " + resource.exists() + ", readable: " + resource.isReadable());
+        if (!Files.isReadable(filePath)) {
+            throw new RuntimeException("Could not read the file!");
+        }
+        long length = Files.size(filePath);
+        long lastModified = Files.getLastModifiedTime(filePath).toMillis();
+        // Legacy files are identified by size and time
+        String eTag = "\"doc-" + document.getId() + "-" + length + "-" + lastModified + "\"";
+        return new DocumentContent(document, new ContentStore.Location(filePath, 0, length, null, lastModified), eTag, true);
+    }
 
-        if (resource.exists() || resource.isReadable()) {
-            return resource;
-        } else {
+    /**
+     * The original bytes of content stored compressed, decompressed as they are read.
+     */
+    public InputStream openDecoded(DocumentContent content) throws IOException {
+        ContentStore.Location location = new ContentStore.Location(content.getFile(), content.getOffset(),
+                content.getLength(), content.getContentEncoding(), content.getLastModified());
+        return documentCompression.decoding(contentStore.openStored(location), content.getContentType());
+    }
+
+    /**
+     * Locates the thumbnail or extracted text made by the processing pipeline.
+     */
+    public DocumentContent downloadRendition(Long documentId, Rendition rendition) throws IOException {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new RuntimeException("Document not found"));
+        String hash = rendition == Rendition.THUMBNAIL ? document.getThumbnailHash() : document.getTextHash();
+        if (hash == null) {
+            throw new RuntimeException("Document has no " + rendition.name().toLowerCase());
+        }
+        // Renditions share the store with uploads, so one may be a gzip copy or packed like any other content
+        ContentBlob blob = contentStore.find(hash);
+        if (blob == null) {
+            throw new RuntimeException("Could not read the file!");
+        }
+        ContentStore.Location location;
+        try {
+            location = contentStore.locate(hash, blob.getEncoding());
+        } catch (NoSuchFileException e) {
             throw new RuntimeException("Could not read the file!");
         }
+        return new DocumentContent(document.getId(), document.getFileName(), rendition.contentType,
+                location.getEncoding(), location.getFile(), location.getOffset(), location.getLength(), blob.getSize(),
+                location.getLastModified(), "\"" + hash + "\"", true);
+    }
+
+    public enum Rendition {
+        THUMBNAIL("image/png"), TEXT("text/plain;charset=UTF-8");
+
+        private final String contentType;
+
+        Rendition(String contentType) {
+            this.contentType = contentType;
+        }
+    }
+
+    /**
+     * Where a document's bytes are: {@code length} bytes of {@code file} starting at {@code offset}. When
+     * {@code contentEncoding} is set those bytes are compressed and decode to {@code decodedLength} bytes.
+     * Unless {@code immutable}, the response may still change under this URL and must be revalidated.
+     */
+    public static class DocumentContent {
+        private final Long documentId;
+        private final String fileName;
+        private final String contentType;
+        private final String contentEncoding;
+        private final Path file;
+        private final long offset;
+        private final long length;
+        private final long decodedLength;
+        private final long lastModified;
+        private final String eTag;
+        private final boolean immutable;
+
+        DocumentContent(Document document, ContentStore.Location location, String eTag, boolean immutable) {
+            // The sniffed type, once known, rather than whatever the client claimed
+            this(document.getId(), document.getFileName(),
+                    document.getDetectedContentType() != null ? document.getDetectedContentType() : document.getContentType(),
+                    location.getEncoding(), location.getFile(), location.getOffset(), location.getLength(),
+                    location.getEncoding() != null ? document.getFileSize() : location.getLength(),
+                    location.getLastModified(), eTag, immutable);
+        }
+
+        DocumentContent(Long documentId, String fileName, String contentType, String contentEncoding, Path file,
+                        long offset, long length, long decodedLength, long lastModified, String eTag,
+                        boolean immutable) {
+            this.documentId = documentId;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+            this.decodedLength = decodedLength;
+            this.lastModified = lastModified;
+            this.eTag = eTag;
+            this.immutable = immutable;
+        }
+
+        public Long getDocumentId() { return documentId; }
+        public String getFileName() { return fileName; }
+        public String getContentType() { return contentType; }
+        public String getContentEncoding() { return contentEncoding; }
+        public Path getFile() { return file; }
+        public long getOffset() { return offset; }
+        public long getLength() { return length; }
+        public long getDecodedLength() { return decodedLength; }
+        public long getLastModified() { return lastModified; }
+        public boolean isImmutable() { return immutable; }
+        // Validator of the decoded content
+        public String getETag() { return eTag; }
+
+        // Validator of the stored, still encoded bytes; a different representation, so a different tag
+        public String getEncodedETag() {
+            return contentEncoding == null ? eTag : eTag.substring(0, eTag.length() - 1) + "-" + contentEncoding + "\"";
+        }
+    }
+
+    /**
+     * A review decision: the document and the status it should move to, VERIFIED or REJECTED.
+     */
+    public static class Decision {
+        private final Long documentId;
+        private final Document.Status status;
+
+        public Decision(Long documentId, Document.Status status) {
+            this.documentId = documentId;
+            this.status = status;
+        }
+
+        public Long getDocumentId() { return documentId; }
+        public Document.Status getStatus() { return status; }
+    }
+
+    public static class DecisionResult {
+        private final Long documentId;
+        private final Document.Status status;
+        private final boolean applied;
+        private final String error;
+
+        private DecisionResult(Long documentId, Document.Status status, boolean applied, String error) {
+            this.documentId = documentId;
+            this.status = status;
+            this.applied = applied;
+            this.error = error;
+        }
+
+        static DecisionResult succeeded(Decision decision) {
+            return new DecisionResult(decision.getDocumentId(), decision.getStatus(), true, null);
+        }
+
+        static DecisionResult failed(Decision decision, String error) {
+            return new DecisionResult(decision.getDocumentId(), decision.getStatus(), false, error);
+        }
+
+        public Long getDocumentId() { return documentId; }
+        public Document.Status getStatus() { return status; }
+        public boolean isApplied() { return applied; }
+        public String getError() { return error; }
     }
 }
@@ -0,0 +1,129 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.Bank_Loan_Management.entity.Document;
+
+/**
+ * Per-borrower, per-type document and verified counts in {@code document_type_counts}, and per-status,
+ * per-type counts in {@code document_status_counts}. Call inside the transaction that changes the document
+ * so the counts commit or roll back with it.
+ */
+@Service
+public class DocumentVerificationCounts {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DocumentVerificationCounts(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void documentAdded(Long userId, String documentType) {
+        if (jdbcTemplate.update("UPDATE document_type_counts SET documents = documents + 1 " +
+                "WHERE user_id = ? AND document_type = ?", userId, documentType) == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO document_type_counts (user_id, document_type, documents, verified) " +
+                        "VALUES (?, ?, 1, 0)", userId, documentType);
+            } catch (DuplicateKeyException e) {
+                // The borrower's first document of this type was counted concurrently
+                jdbcTemplate.update("UPDATE document_type_counts SET documents = documents + 1 " +
+                        "WHERE user_id = ? AND document_type = ?", userId, documentType);
+            }
+        }
+        // Every upload starts out PROCESSING, the borrower's first of a type or not
+        addToStatus(Document.Status.PROCESSING, documentType, 1);
+    }
+
+    public void statusChanged(String documentType, Document.Status from, Document.Status to) {
+        addToStatus(from, documentType, -1);
+        addToStatus(to, documentType, 1);
+    }
+
+    /**
+     * Applies per-status count changes for many documents in one batch.
+     *
+     * @param deltas change in documents by status, then document type
+     */
+    public void statusesChanged(Map<Document.Status, Map<String, Integer>> deltas) {
+        List<Object[]> updates = new ArrayList<>();
+        deltas.forEach((status, byType) -> byType.forEach((documentType, delta) -> {
+            if (delta != 0) {
+                updates.add(new Object[] {delta, status.name(), documentType});
+            }
+        }));
+        if (updates.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE document_status_counts SET documents = documents + ? " +
+                "WHERE status = ? AND document_type = ?", updates);
+        for (int i = 0; i < counts.length; i++) {
+            // The first document of a type to reach a status has no row yet
+            if (counts[i] == 0) {
+                Object[] update = updates.get(i);
+                addToStatus(Document.Status.valueOf((String) update[1]), (String) update[2], (Integer) update[0]);
+            }
+        }
+    }
+
+    /**
+     * Documents in a status, optionally of one type, read from one row per document type.
+     */
+    public long countInStatus(Document.Status status, String documentType) {
+        Long count = documentType == null
+                ? jdbcTemplate.queryForObject("SELECT COALESCE(SUM(documents), 0) FROM document_status_counts " +
+                        "WHERE status = ?", Long.class, status.name())
+                : jdbcTemplate.queryForObject("SELECT COALESCE(SUM(documents), 0) FROM document_status_counts " +
+                        "WHERE status = ? AND document_type = ?", Long.class, status.name(), documentType);
+        return Objects.requireNonNullElse(count, 0L);
+    }
+
+    private void addToStatus(Document.Status status, String documentType, int delta) {
+        if (jdbcTemplate.update("UPDATE document_status_counts SET documents = documents + ? " +
+                "WHERE status = ? AND document_type = ?", delta, status.name(), documentType) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO document_status_counts (status, document_type, documents) VALUES (?, ?, ?)",
+                    status.name(), documentType, delta);
+        } catch (DuplicateKeyException e) {
+            // Another transaction created the row first
+            jdbcTemplate.update("UPDATE document_status_counts SET documents = documents + ? " +
+                    "WHERE status = ? AND document_type = ?", delta, status.name(), documentType);
+        }
+    }
+
+    /**
+     * Applies verified count changes for many documents in one batch.
+     *
+     * @param deltas change in verified documents by borrower id, then document type
+     */
+    public void verifiedChanged(Map<Long, Map<String, Integer>> deltas) {
+        List<Object[]> updates = new ArrayList<>();
+        deltas.forEach((userId, byType) -> byType.forEach((documentType, delta) -> {
+            if (delta != 0) {
+                updates.add(new Object[] {delta, userId, documentType});
+            }
+        }));
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE document_type_counts SET verified = verified + ? " +
+                    "WHERE user_id = ? AND document_type = ?", updates);
+        }
+    }
+
+    /**
+     * Whether every document type the borrower has uploaded has at least one verified document. Reads only
+     * the borrower's rows of the (user_id, document_type) key, one per type.
+     */
+    public boolean allTypesVerified(Long userId) {
+        Integer unverified = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM document_type_counts WHERE user_id = ? AND verified = 0", Integer.class, userId);
+        return unverified == null || unverified == 0;
+    }
+}
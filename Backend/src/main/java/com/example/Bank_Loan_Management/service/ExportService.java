@@ -0,0 +1,224 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.temporal.TemporalAccessor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.core.exc.JacksonIOException;
+import tools.jackson.core.json.JsonFactory;
+
+/**
+ * Full exports of the loan book and document register as NDJSON or CSV.
+ *
+ * Rows are read through a forward-only, read-only JDBC result set that the driver streams (see
+ * {@link #fetchSize}) and written to the output as they arrive. Nothing is collected and no entities are
+ * created, so memory use is the same for a thousand rows or ten million.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    // One NDJSON line per row: no separator between root values, each row ends with its own newline
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .rootValueSeparator((String) null)
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    // Output label and SQL expression per column, in export order
+    private static final String[][] LOAN_COLUMNS = {
+            {"id", "l.id"},
+            {"userId", "l.user_id"},
+            {"username", "u.username"},
+            {"loanManagerId", "l.loan_manager_id"},
+            {"managerId", "l.manager_id"},
+            {"amount", "l.amount"},
+            {"term", "l.term"},
+            {"purpose", "l.purpose"},
+            {"status", "l.status"},
+            {"creditScore", "l.credit_score"},
+            {"scoringRuleVersion", "l.scoring_rule_version"},
+            {"interestRate", "l.interest_rate"},
+            {"appliedDate", "l.applied_date"},
+            {"decisionDate", "l.decision_date"},
+            {"approvedAmount", "l.approved_amount"},
+            {"paidAmount", "l.paid_amount"},
+            {"pendingAmount", "l.pending_amount"},
+            {"documentsVerified", "l.documents_verified"}
+    };
+    private static final String LOAN_FROM = "FROM loan_applications l JOIN users u ON u.id = l.user_id ORDER BY l.id";
+
+    private static final String[][] DOCUMENT_COLUMNS = {
+            {"id", "d.id"},
+            {"userId", "d.user_id"},
+            {"loanApplicationId", "d.loan_application_id"},
+            {"documentType", "d.document_type"},
+            {"fileName", "d.file_name"},
+            {"contentType", "d.content_type"},
+            {"fileSize", "d.file_size"},
+            {"contentHash", "d.content_hash"},
+            {"status", "d.status"}
+    };
+    private static final String DOCUMENT_FROM = "FROM documents d ORDER BY d.id";
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long exportLoans(Format format, Writer out) throws IOException {
+        return export("loans", LOAN_COLUMNS, LOAN_FROM, format, out);
+    }
+
+    public long exportDocuments(Format format, Writer out) throws IOException {
+        return export("documents", DOCUMENT_COLUMNS, DOCUMENT_FROM, format, out);
+    }
+
+    private long export(String name, String[][] columns, String from, Format format, Writer out) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns[i][1]);
+        }
+        sql.append(' ').append(from);
+
+        if (format == Format.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                out.write(i == 0 ? "" : ",");
+                out.write(columns[i][0]);
+            }
+            out.write('\n');
+        }
+
+        long start = System.currentTimeMillis();
+        long[] rows = {0};
+        JsonGenerator json = format == Format.NDJSON ? JSON.createGenerator(out) : null;
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize(connection));
+                return statement;
+            }, resultSet -> {
+                try {
+                    if (json == null) {
+                        writeCsvRow(resultSet, columns.length, out);
+                    } else {
+                        writeJsonRow(resultSet, columns, json);
+                    }
+                } catch (IOException e) {
+                    // Usually the client went away; stops the cursor instead of reading on
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+            if (json != null) {
+                // Flushes the generator's buffer; out stays open
+                json.close();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (JacksonIOException e) {
+            throw (IOException) e.getCause();
+        }
+        out.flush();
+        logger.info("Exported {} {} as {} in {} ms", rows[0], name, format, System.currentTimeMillis() - start);
+        return rows[0];
+    }
+
+    /**
+     * MySQL Connector/J ignores a positive fetch size and reads the whole result into memory unless the
+     * URL sets useCursorFetch=true; Integer.MIN_VALUE makes it stream rows from the socket one at a time
+     * instead, without a server-side cursor or temporary table. The connection can run nothing else until
+     * the result is read, which an export does not need. Other drivers, H2 included, fetch in batches of
+     * the given size.
+     */
+    private static int fetchSize(Connection connection) throws SQLException {
+        return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+
+    private static void writeJsonRow(ResultSet resultSet, String[][] columns, JsonGenerator json) throws SQLException {
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            json.writeName(columns[i][0]);
+            Object value = resultSet.getObject(i + 1);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof BigDecimal) {
+                json.writeNumber((BigDecimal) value);
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                json.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                json.writeNumber(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                json.writeBoolean((Boolean) value);
+            } else {
+                json.writeString(plain(value));
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsvRow(ResultSet resultSet, int columnCount, Writer out) throws SQLException, IOException {
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) {
+                out.write(',');
+            }
+            Object value = resultSet.getObject(i);
+            if (value != null) {
+                writeCsvField(plain(value), out);
+            }
+        }
+        out.write('\n');
+    }
+
+    private static String plain(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        if (value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        return String.valueOf(value);
+    }
+
+    private static void writeCsvField(String value, Writer out) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.Bank_Loan_Management.entity.InterestRate;
+import com.example.Bank_Loan_Management.repository.InterestRateRepository;
+
+/**
+ * Immutable in-memory snapshot of the interest_rates table merged with the built-in default rates.
+ *
+ * Readers go through a single volatile read and never touch the database. Writes go to the table first
+ * and then publish a new snapshot, so a rate saved through {@link #updateRate} is visible to the next
+ * application priced.
+ */
+@Service
+public class InterestRateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterestRateCache.class);
+
+    private static final Map<String, BigDecimal> DEFAULT_BASE_RATES = Map.of(
+            "home purchase", BigDecimal.valueOf(8.5),
+            "car purchase", BigDecimal.valueOf(9.5),
+            "education", BigDecimal.valueOf(7.5),
+            "business", BigDecimal.valueOf(10.5),
+            "personal", BigDecimal.valueOf(12.0),
+            "health", BigDecimal.valueOf(8.0),
+            "travel", BigDecimal.valueOf(11.0),
+            "wedding", BigDecimal.valueOf(9.0),
+            "home renovation", BigDecimal.valueOf(8.75),
+            "debt consolidation", BigDecimal.valueOf(11.5));
+    private static final BigDecimal OTHER_BASE_RATE = BigDecimal.valueOf(10.0);
+    private static final BigDecimal MINIMUM_RATE = BigDecimal.valueOf(5.0);
+
+    private final InterestRateRepository interestRateRepository;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    public InterestRateCache(InterestRateRepository interestRateRepository) {
+        this.interestRateRepository = interestRateRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        List<InterestRate> rates = interestRateRepository.findAll();
+        snapshot = Snapshot.build(rates);
+        logger.info("Loaded interest rate snapshot with {} configured purposes", rates.size());
+    }
+
+    public BigDecimal getInterestRate(String purpose, int creditScore) {
+        return snapshot.rateFor(purpose, creditScore);
+    }
+
+    /**
+     * Saves the rate for a purpose and swaps in a snapshot that includes it.
+     */
+    public synchronized InterestRate updateRate(String purpose, BigDecimal rate) {
+        String key = canonicalPurpose(purpose);
+        Optional<InterestRate> existingRate = interestRateRepository.findByPurpose(key);
+        InterestRate interestRate;
+        if (existingRate.isPresent()) {
+            interestRate = existingRate.get();
+            interestRate.setRate(rate);
+        } else {
+            interestRate = new InterestRate(key, rate);
+        }
+        InterestRate saved = interestRateRepository.save(interestRate);
+        snapshot = snapshot.withConfiguredRate(key, saved.getRate());
+        return saved;
+    }
+
+    /**
+     * Lower-cased, trimmed, with runs of whitespace collapsed: "  Home   Purchase" becomes "home purchase".
+     * Returns the argument itself when it is already canonical, so lookups with canonical keys do not allocate.
+     */
+    public static String canonicalPurpose(String purpose) {
+        if (purpose == null) {
+            return "";
+        }
+        if (isCanonical(purpose)) {
+            return purpose;
+        }
+        StringBuilder canonical = new StringBuilder(purpose.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < purpose.length(); i++) {
+            char c = purpose.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = canonical.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    canonical.append(' ');
+                    pendingSpace = false;
+                }
+                canonical.append(Character.toLowerCase(c));
+            }
+        }
+        return canonical.toString();
+    }
+
+    private static boolean isCanonical(String purpose) {
+        int length = purpose.length();
+        for (int i = 0; i < length; i++) {
+            char c = purpose.charAt(i);
+            if (c == ' ') {
+                if (i == 0 || i == length - 1 || purpose.charAt(i - 1) == ' ') {
+                    return false;
+                }
+            } else if (Character.isWhitespace(c) || Character.toLowerCase(c) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Snapshot {
+        // Rates configured in the table apply as-is, whatever the credit score
+        private final Map<String, BigDecimal> configuredRates;
+        // Built-in rates per purpose, already adjusted for each credit score tier
+        private final Map<String, BigDecimal[]> defaultRates;
+        private final BigDecimal[] otherRates;
+
+        private Snapshot(Map<String, BigDecimal> configuredRates, Map<String, BigDecimal[]> defaultRates, BigDecimal[] otherRates) {
+            this.configuredRates = configuredRates;
+            this.defaultRates = defaultRates;
+            this.otherRates = otherRates;
+        }
+
+        static Snapshot build(List<InterestRate> rates) {
+            Map<String, BigDecimal> configured = new HashMap<>();
+            for (InterestRate rate : rates) {
+                if (rate.getPurpose() != null && rate.getRate() != null) {
+                    configured.put(canonicalPurpose(rate.getPurpose()), rate.getRate());
+                }
+            }
+            Map<String, BigDecimal[]> defaults = new HashMap<>();
+            DEFAULT_BASE_RATES.forEach((purpose, baseRate) -> defaults.put(purpose, tiers(baseRate)));
+            return new Snapshot(Map.copyOf(configured), Map.copyOf(defaults), tiers(OTHER_BASE_RATE));
+        }
+
+        Snapshot withConfiguredRate(String key, BigDecimal rate) {
+            Map<String, BigDecimal> configured = new HashMap<>(configuredRates);
+            configured.put(key, rate);
+            return new Snapshot(Map.copyOf(configured), defaultRates, otherRates);
+        }
+
+        BigDecimal rateFor(String purpose, int creditScore) {
+            String key = canonicalPurpose(purpose);
+            BigDecimal configured = configuredRates.get(key);
+            if (configured != null) {
+                return configured;
+            }
+            BigDecimal[] tiered = defaultRates.getOrDefault(key, otherRates);
+            return tiered[tier(creditScore)];
+        }
+
+        private static int tier(int creditScore) {
+            if (creditScore >= 750) {
+                return 0;
+            } else if (creditScore >= 650) {
+                return 1;
+            } else if (creditScore < 550) {
+                return 2;
+            }
+            return 3;
+        }
+
+        private static BigDecimal[] tiers(BigDecimal baseRate) {
+            return new BigDecimal[] {
+                    baseRate.subtract(BigDecimal.valueOf(1.0)).max(MINIMUM_RATE),
+                    baseRate.subtract(BigDecimal.valueOf(0.5)).max(MINIMUM_RATE),
+                    baseRate.add(BigDecimal.valueOf(1.0)).max(MINIMUM_RATE),
+                    baseRate.max(MINIMUM_RATE)
+            };
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Service;
+
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository.LoanHistorySummary;
+
+/**
+ * Read-only "what if" pricing: the score, eligibility, rate and category a user would get for each of a
+ * grid of loan candidates, without creating an application.
+ *
+ * The profile points and loan history are looked up once per request, so each cell only evaluates the
+ * application factors. Large grids are split across the common fork/join pool.
+ */
+@Service
+public class LoanQuoteService {
+
+    public static final int MAX_CANDIDATES = 10_000;
+    private static final int PARALLEL_THRESHOLD = 2_000;
+
+    private final CreditScoringService creditScoringService;
+    private final LoanApplicationRepository loanApplicationRepository;
+
+    public LoanQuoteService(CreditScoringService creditScoringService, LoanApplicationRepository loanApplicationRepository) {
+        this.creditScoringService = creditScoringService;
+        this.loanApplicationRepository = loanApplicationRepository;
+    }
+
+    public LoanQuote[] quote(User user, List<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            throw new RuntimeException("At least one loan candidate is required");
+        }
+        if (candidates.size() > MAX_CANDIDATES) {
+            throw new RuntimeException("At most " + MAX_CANDIDATES + " loan candidates can be quoted at once");
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            if (candidate.amount == null || candidate.amount.signum() <= 0) {
+                throw new RuntimeException("Candidate " + i + ": amount must be positive");
+            }
+            if (candidate.term <= 0 || candidate.term > AmortizationSchedule.MAX_TERM) {
+                throw new RuntimeException("Candidate " + i + ": term must be between 1 and "
+                        + AmortizationSchedule.MAX_TERM + " months");
+            }
+        }
+
+        CreditScoringEngine engine = creditScoringService.getActiveEngine();
+        int profilePoints = creditScoringService.profilePoints(engine, user);
+        LoanHistorySummary history = loanApplicationRepository.summarizeHistory(user.getId()).orElse(null);
+        int approved = history != null ? Math.toIntExact(history.getApprovedCount()) : 0;
+        int rejected = history != null ? Math.toIntExact(history.getRejectedCount()) : 0;
+        int fullyPaid = history != null ? Math.toIntExact(history.getFullyPaidCount()) : 0;
+        int outstanding = history != null ? Math.toIntExact(history.getOutstandingCount()) : 0;
+
+        LoanQuote[] quotes = new LoanQuote[candidates.size()];
+        IntStream cells = IntStream.range(0, quotes.length);
+        if (quotes.length >= PARALLEL_THRESHOLD) {
+            cells = cells.parallel();
+        }
+        cells.forEach(i -> {
+            Candidate candidate = candidates.get(i);
+            int creditScore = engine.score(profilePoints, user.getAnnualIncome(), user.getExistingDebts(),
+                    candidate.amount, candidate.term, candidate.purpose, approved, rejected, fullyPaid, outstanding);
+            quotes[i] = new LoanQuote(candidate.amount, candidate.term, candidate.purpose, creditScore,
+                    creditScoringService.isEligible(creditScore, candidate.amount),
+                    creditScoringService.getInterestRate(candidate.purpose, creditScore),
+                    creditScoringService.getCreditScoreCategory(creditScore));
+        });
+        return quotes;
+    }
+
+    public static final class Candidate {
+        private final BigDecimal amount;
+        private final int term;
+        private final String purpose;
+
+        public Candidate(BigDecimal amount, int term, String purpose) {
+            this.amount = amount;
+            this.term = term;
+            this.purpose = purpose;
+        }
+    }
+
+    public static class LoanQuote {
+        private final BigDecimal amount;
+        private final int term;
+        private final String purpose;
+        private final int creditScore;
+        private final boolean eligible;
+        private final BigDecimal interestRate;
+        private final String creditScoreCategory;
+
+        LoanQuote(BigDecimal amount, int term, String purpose, int creditScore, boolean eligible,
+                  BigDecimal interestRate, String creditScoreCategory) {
+            this.amount = amount;
+            this.term = term;
+            this.purpose = purpose;
+            this.creditScore = creditScore;
+            this.eligible = eligible;
+            this.interestRate = interestRate;
+            this.creditScoreCategory = creditScoreCategory;
+        }
+
+        public BigDecimal getAmount() { return amount; }
+        public int getTerm() { return term; }
+        public String getPurpose() { return purpose; }
+        public int getCreditScore() { return creditScore; }
+        public boolean isEligible() { return eligible; }
+        public BigDecimal getInterestRate() { return interestRate; }
+        public String getCreditScoreCategory() { return creditScoreCategory; }
+    }
+}
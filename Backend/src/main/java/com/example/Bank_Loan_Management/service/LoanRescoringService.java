@@ -0,0 +1,280 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository.LoanHistorySummary;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+
+/**
+ * Re-scores and re-prices every open (APPLIED or VERIFIED) loan application after a change to the
+ * scoring rules or interest rates.
+ *
+ * Applications are partitioned into id ranges and the ranges are processed in parallel, one transaction
+ * per range. Each range reads only the columns scoring needs, prefetches its users and loan history
+ * aggregates with one query each, and writes the results back as a single JDBC batch, so memory use
+ * is bounded by the range size rather than the number of open applications. The whole job scores with
+ * the rule set version that was active when it started and records that version on every application.
+ */
+@Service
+public class LoanRescoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanRescoringService.class);
+
+    static final int CHUNK_SIZE = 2000;
+
+    private static final String OPEN_STATUSES = "('APPLIED', 'VERIFIED')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final CreditScoringService creditScoringService;
+    private final ChangeVersionService changeVersionService;
+
+    private final AtomicReference<RescoringJob> currentJob = new AtomicReference<>();
+
+    public LoanRescoringService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                UserRepository userRepository,
+                                LoanApplicationRepository loanApplicationRepository,
+                                CreditScoringService creditScoringService,
+                                ChangeVersionService changeVersionService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userRepository = userRepository;
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.creditScoringService = creditScoringService;
+        this.changeVersionService = changeVersionService;
+    }
+
+    /**
+     * Starts a job in the background and returns it immediately; poll {@link #getCurrentJob()} for progress.
+     */
+    public RescoringJob startJob() {
+        RescoringJob previous = currentJob.get();
+        if (previous != null && previous.isRunning()) {
+            throw new RuntimeException("A re-scoring job is already running");
+        }
+
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM loan_applications WHERE status IN " + OPEN_STATUSES);
+        Number minId = (Number) range.get("min_id");
+        Number maxId = (Number) range.get("max_id");
+        long first = minId != null ? minId.longValue() : 0L;
+        long last = maxId != null ? maxId.longValue() : -1L;
+        int totalChunks = (int) ((last - first + CHUNK_SIZE) / CHUNK_SIZE);
+
+        RescoringJob job = new RescoringJob(totalChunks, creditScoringService.getActiveEngine());
+        if (!currentJob.compareAndSet(previous, job)) {
+            throw new RuntimeException("A re-scoring job is already running");
+        }
+        logger.info("Starting re-scoring of open applications with ids {}..{} in {} chunks", first, last, totalChunks);
+
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), totalChunks));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "loan-rescoring-" + job.threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<CompletableFuture<Void>> chunks = new ArrayList<>(totalChunks);
+        for (long from = first; from <= last; from += CHUNK_SIZE) {
+            long chunkStart = from;
+            long chunkEnd = Math.min(last, from + CHUNK_SIZE - 1);
+            chunks.add(CompletableFuture.runAsync(() -> processChunk(job, chunkStart, chunkEnd), executor));
+        }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, error) -> {
+                    executor.shutdown();
+                    job.finish(error);
+                    logger.info("Re-scoring finished: {} applications in {} ms ({} per second), {} failed chunks",
+                            job.getProcessed(), job.getElapsedMillis(), job.getApplicationsPerSecond(), job.getFailedChunks());
+                });
+        return job;
+    }
+
+    public RescoringJob getCurrentJob() {
+        return currentJob.get();
+    }
+
+    private void processChunk(RescoringJob job, long fromId, long toId) {
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> rescoreRange(fromId, toId, job));
+            // Counted once the chunk has committed, so a rolled-back chunk does not show as progress
+            job.processed.addAndGet(result.processed);
+            job.updated.addAndGet(result.updated);
+        } catch (RuntimeException e) {
+            job.failedChunks.incrementAndGet();
+            logger.error("Re-scoring failed for applications {}..{}", fromId, toId, e);
+            throw e;
+        } finally {
+            int done = job.completedChunks.incrementAndGet();
+            if (done % 50 == 0) {
+                logger.info("Re-scoring progress: {}/{} chunks, {} applications", done, job.getTotalChunks(), job.getProcessed());
+            }
+        }
+    }
+
+    private ChunkResult rescoreRange(long fromId, long toId, RescoringJob job) {
+        List<OpenApplication> applications = jdbcTemplate.query(
+                "SELECT id, user_id, amount, term, purpose FROM loan_applications " +
+                "WHERE id BETWEEN ? AND ? AND status IN " + OPEN_STATUSES,
+                (rs, rowNum) -> new OpenApplication(rs.getLong("id"), rs.getLong("user_id"),
+                        rs.getBigDecimal("amount"), rs.getInt("term"), rs.getString("purpose")),
+                fromId, toId);
+        if (applications.isEmpty()) {
+            return new ChunkResult(0, 0);
+        }
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (OpenApplication application : applications) {
+            userIds.add(application.userId);
+        }
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), user);
+        }
+        Map<Long, LoanHistorySummary> histories = new HashMap<>();
+        for (LoanHistorySummary history : loanApplicationRepository.summarizeHistories(userIds)) {
+            histories.put(history.getUserId(), history);
+        }
+
+        List<Object[]> updates = new ArrayList<>(applications.size());
+        for (OpenApplication application : applications) {
+            User user = users.get(application.userId);
+            int creditScore = creditScoringService.calculateCreditScore(job.scoringEngine, user, application.amount,
+                    application.term, application.purpose, histories.get(application.userId));
+            BigDecimal interestRate = creditScoringService.getInterestRate(application.purpose, creditScore);
+            updates.add(new Object[] {creditScore, interestRate, job.getScoringRuleVersion(), application.id});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE loan_applications SET credit_score = ?, interest_rate = ?, scoring_rule_version = ? " +
+                "WHERE id = ? AND status IN " + OPEN_STATUSES,
+                updates);
+        // An application decided since it was read no longer matches and is not counted
+        int updated = 0;
+        for (int count : counts) {
+            // Drivers that cannot report row counts return SUCCESS_NO_INFO for each statement
+            updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        changeVersionService.changed(ChangeVersionService.Collection.LOANS);
+
+        // Cache profile points computed for this version; ascending ids keep row lock order the same across chunks
+        List<Object[]> profileUpdates = new ArrayList<>();
+        for (Long userId : new TreeSet<>(users.keySet())) {
+            User user = users.get(userId);
+            if (!creditScoringService.hasCurrentProfilePoints(job.scoringEngine, user)) {
+                profileUpdates.add(new Object[] {job.scoringEngine.profilePoints(user), job.getScoringRuleVersion(), userId});
+            }
+        }
+        if (!profileUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE users SET profile_points = ?, profile_points_version = ? WHERE id = ?",
+                    profileUpdates);
+        }
+        return new ChunkResult(applications.size(), updated);
+    }
+
+    private static final class ChunkResult {
+        final int processed;
+        final int updated;
+
+        ChunkResult(int processed, int updated) {
+            this.processed = processed;
+            this.updated = updated;
+        }
+    }
+
+    private static final class OpenApplication {
+        final long id;
+        final long userId;
+        final BigDecimal amount;
+        final int term;
+        final String purpose;
+
+        OpenApplication(long id, long userId, BigDecimal amount, int term, String purpose) {
+            this.id = id;
+            this.userId = userId;
+            this.amount = amount;
+            this.term = term;
+            this.purpose = purpose;
+        }
+    }
+
+    /**
+     * Progress of one re-scoring run, safe to read while the run is in flight.
+     */
+    public static class RescoringJob {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final int totalChunks;
+        private final CreditScoringEngine scoringEngine;
+        private final AtomicInteger completedChunks = new AtomicInteger();
+        private final AtomicInteger failedChunks = new AtomicInteger();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicInteger threadCounter = new AtomicInteger();
+        private volatile long finishNanos;
+        private volatile LocalDateTime finishedAt;
+        private volatile String state = "RUNNING";
+
+        RescoringJob(int totalChunks, CreditScoringEngine scoringEngine) {
+            this.totalChunks = totalChunks;
+            this.scoringEngine = scoringEngine;
+            if (totalChunks == 0) {
+                finish(null);
+            }
+        }
+
+        void finish(Throwable error) {
+            finishNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            state = error == null && failedChunks.get() == 0 ? "COMPLETED" : "FAILED";
+        }
+
+        public String getState() { return state; }
+        public boolean isRunning() { return "RUNNING".equals(state); }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public int getScoringRuleVersion() { return scoringEngine.getVersion(); }
+        public int getTotalChunks() { return totalChunks; }
+        public int getCompletedChunks() { return completedChunks.get(); }
+        public int getFailedChunks() { return failedChunks.get(); }
+        public long getProcessed() { return processed.get(); }
+        public long getUpdated() { return updated.get(); }
+
+        public long getElapsedMillis() {
+            long end = isRunning() ? System.nanoTime() : finishNanos;
+            return Duration.ofNanos(end - startNanos).toMillis();
+        }
+
+        public long getApplicationsPerSecond() {
+            long elapsed = getElapsedMillis();
+            return elapsed > 0 ? processed.get() * 1000 / elapsed : 0;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.Bank_Loan_Management.service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,28 +12,47 @@ import com.example.Bank_Loan_Management.entity.Document;
 import com.example.Bank_Loan_Management.entity.LoanApplication;
 import com.example.Bank_Loan_Management.entity.User;
 import com.example.Bank_Loan_Management.repository.DocumentRepository;
+import com.example.Bank_Loan_Management.repository.KeysetPage;
+import com.example.Bank_Loan_Management.repository.LoanApplicationFilter;
 import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.repository.LoanListing;
 
 @Service
 public class LoanService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final LoanApplicationRepository loanApplicationRepository;
     private final DocumentRepository documentRepository;
     private final CreditScoringService creditScoringService;
     private final NotificationService notificationService;
+    private final AmortizationService amortizationService;
+    private final ChangeVersionService changeVersionService;
 
     public LoanService(LoanApplicationRepository loanApplicationRepository,
                        DocumentRepository documentRepository,
                        CreditScoringService creditScoringService,
-                       NotificationService notificationService) {
+                       NotificationService notificationService,
+                       AmortizationService amortizationService,
+                       ChangeVersionService changeVersionService) {
         this.loanApplicationRepository = loanApplicationRepository;
         this.documentRepository = documentRepository;
         this.creditScoringService = creditScoringService;
         this.notificationService = notificationService;
+        this.amortizationService = amortizationService;
+        this.changeVersionService = changeVersionService;
     }
 
     @Transactional
     public LoanApplication applyForLoan(User user, BigDecimal amount, Integer term, String purpose) {
+        // Approval builds the repayment schedule, so anything it could not compute is refused up front
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Loan amount must be positive");
+        }
+        if (term == null || term <= 0 || term > AmortizationSchedule.MAX_TERM) {
+            throw new IllegalArgumentException("Loan term must be between 1 and " + AmortizationSchedule.MAX_TERM + " months");
+        }
         LoanApplication application = new LoanApplication();
         application.setUser(user);
         application.setAmount(amount);
@@ -42,9 +62,12 @@ public class LoanService {
         application.setAppliedDate(LocalDateTime.now());
         application.setDocumentsVerified(false);
 
-        // Calculate credit score
-        int creditScore = creditScoringService.calculateCreditScore(user, amount, term, purpose);
+        // Calculate credit score, recording the rule set version that produced it
+        CreditScoringEngine scoringEngine = creditScoringService.getActiveEngine();
+        creditScoringService.refreshProfilePoints(scoringEngine, user);
+        int creditScore = creditScoringService.calculateCreditScore(scoringEngine, user, amount, term, purpose);
         application.setCreditScore(creditScore);
+        application.setScoringRuleVersion(scoringEngine.getVersion());
 
         // Set interest rate based on purpose and credit score
         BigDecimal interestRate = creditScoringService.getInterestRate(purpose, creditScore);
@@ -59,7 +82,8 @@ public class LoanService {
             documentRepository.save(document);
         }
 
-        notificationService.sendLoanStatusUpdate(user.getId(), "APPLIED");
+        changeVersionService.changed(ChangeVersionService.Collection.LOANS, ChangeVersionService.Collection.DOCUMENTS);
+        notificationService.sendLoanStatusUpdate(user.getId(), saved.getId(), "APPLIED");
 
         return saved;
     }
@@ -80,7 +104,8 @@ public class LoanService {
 
         LoanApplication saved = loanApplicationRepository.save(application);
 
-        notificationService.sendLoanStatusUpdate(application.getUser().getId(), "REJECTED");
+        changeVersionService.changed(ChangeVersionService.Collection.LOANS);
+        notificationService.sendLoanStatusUpdate(application.getUser().getId(), saved.getId(), "REJECTED");
 
         return saved;
     }
@@ -100,7 +125,8 @@ public class LoanService {
 
         LoanApplication saved = loanApplicationRepository.save(application);
 
-        notificationService.sendLoanStatusUpdate(application.getUser().getId(), "VERIFIED");
+        changeVersionService.changed(ChangeVersionService.Collection.LOANS);
+        notificationService.sendLoanStatusUpdate(application.getUser().getId(), saved.getId(), "VERIFIED");
 
         return saved;
     }
@@ -120,7 +146,8 @@ public class LoanService {
 
         LoanApplication saved = loanApplicationRepository.save(application);
 
-        notificationService.sendLoanStatusUpdate(application.getUser().getId(), "REJECTED");
+        changeVersionService.changed(ChangeVersionService.Collection.LOANS);
+        notificationService.sendLoanStatusUpdate(application.getUser().getId(), saved.getId(), "REJECTED");
 
         return saved;
     }
@@ -146,22 +173,36 @@ public class LoanService {
         // Ensure interest rate is set (fallback to 8.5% if not set)
         BigDecimal interestRate = application.getInterestRate();
         if (interestRate == null || interestRate.compareTo(BigDecimal.ZERO) <= 0) {
-            interestRate = BigDecimal.valueOf(8.5);
+            interestRate = AmortizationService.FALLBACK_RATE;
             application.setInterestRate(interestRate);
         }
 
-        BigDecimal interestAmount = application.getAmount().multiply(interestRate).divide(BigDecimal.valueOf(100));
-        BigDecimal totalAmount = application.getAmount().add(interestAmount);
+        // Amount owed is the sum of the monthly installments over the term
+        AmortizationSchedule schedule = amortizationService.getSchedule(application);
         application.setPaidAmount(BigDecimal.ZERO);
-        application.setPendingAmount(totalAmount);
+        application.setPendingAmount(schedule.getTotalRepayment());
 
         LoanApplication saved = loanApplicationRepository.save(application);
 
-        notificationService.sendLoanStatusUpdate(application.getUser().getId(), "APPROVED");
+        changeVersionService.changed(ChangeVersionService.Collection.LOANS);
+        notificationService.sendLoanStatusUpdate(application.getUser().getId(), saved.getId(), "APPROVED");
 
         return saved;
     }
 
+    public LoanApplication getLoan(Long applicationId) {
+        return loanApplicationRepository.findById(applicationId)
+                .orElseThrow(() -> new RuntimeException("Application not found"));
+    }
+
+    public Optional<LoanApplication> findLoan(Long applicationId) {
+        return loanApplicationRepository.findById(applicationId);
+    }
+
+    public AmortizationSchedule getRepaymentSchedule(LoanApplication application) {
+        return amortizationService.getSchedule(application);
+    }
+
     public List<LoanApplication> getLoansByUser(User user) {
         return loanApplicationRepository.findByUser(user);
     }
@@ -170,6 +211,33 @@ public class LoanService {
         return loanApplicationRepository.findByStatus(status);
     }
 
+    /**
+     * One page of loans matching the filter, newest first. The limit defaults to {@value #DEFAULT_PAGE_SIZE}
+     * and is capped at {@value #MAX_PAGE_SIZE}.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<LoanApplication> getLoanPage(LoanApplicationFilter filter, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<LoanApplication> rows = loanApplicationRepository.findPage(filter, pageSize + 1);
+        return KeysetPage.of(rows, pageSize,
+                loan -> LoanApplicationFilter.encodeCursor(loan.getAppliedDate(), loan.getId()));
+    }
+
+    /**
+     * The same page as {@link #getLoanPage}, selected as listing rows without loading entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<LoanListing> getLoanListingPage(LoanApplicationFilter filter, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<LoanListing> rows = loanApplicationRepository.findListingPage(filter, pageSize + 1);
+        return KeysetPage.of(rows, pageSize,
+                loan -> LoanApplicationFilter.encodeCursor(loan.getAppliedDate(), loan.getId()));
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+    }
+
     public List<LoanApplication> getAllLoans() {
         return loanApplicationRepository.findAll();
     }
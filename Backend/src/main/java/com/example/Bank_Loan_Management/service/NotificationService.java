@@ -10,6 +10,9 @@ public class NotificationService {
     @Autowired(required = false)
     private KafkaTemplate<String, String> kafkaTemplate;
 
+    @Autowired
+    private StatusEventService statusEventService;
+
     public void sendNotification(String topic, String message) {
         if (kafkaTemplate != null) {
             kafkaTemplate.send(topic, message);
@@ -18,8 +21,13 @@ public class NotificationService {
         }
     }
 
-    public void sendLoanStatusUpdate(Long userId, String status) {
+    public void sendLoanStatusUpdate(Long userId, Long applicationId, String status) {
         String message = String.format("Loan application for user %d has been %s", userId, status);
         sendNotification("loan-notifications", message);
+        statusEventService.publishLoanStatus(userId, applicationId, status);
+    }
+
+    public void sendDocumentStatusUpdate(Long userId, Long documentId, String status) {
+        statusEventService.publishDocumentStatus(userId, documentId, status);
     }
 }
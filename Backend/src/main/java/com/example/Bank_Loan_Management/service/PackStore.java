@@ -0,0 +1,210 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cold storage for content that is rarely read: many files appended to large segment files in
+ * {@code packs} under {@code documents.storage-dir}, so they no longer take an inode and a directory entry each.
+ *
+ * Each {@code segment-NNNNNN.pack} has an append-only {@code segment-NNNNNN.idx} beside it holding one
+ * fixed-size record per stored entry (content hash, encoding, offset, length, original modification time).
+ * Entries are never removed, as no content is deleted from the loose store either. The indexes are read
+ * into memory at startup, so locating packed content needs no I/O.
+ * Reads are positional: callers get the segment file with an offset and length, see ContentStore#locate.
+ */
+@Service
+public class PackStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PackStore.class);
+
+    // A segment is closed for appends once it reaches this size
+    private static final long SEGMENT_SIZE = 1024L * 1024 * 1024;
+    // 32-byte hash, 1-byte encoding flag, 8-byte offset, 8-byte length, 8-byte modification time of the original file
+    static final int RECORD_SIZE = 32 + 1 + 8 + 8 + 8;
+    private static final byte PLAIN = 0;
+    private static final byte GZIP = 1;
+
+    private final Path root;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private int segment;
+    private FileChannel pack;
+    private FileChannel index;
+
+    @Autowired
+    public PackStore(@Value("${documents.storage-dir:uploads}") String storageDir) {
+        this(Paths.get(storageDir));
+    }
+
+    // Segments go in a packs directory under the given upload root
+    PackStore(Path uploads) {
+        this.root = uploads.resolve("packs");
+        try {
+            Files.createDirectories(root);
+            TreeSet<Integer> segments = new TreeSet<>();
+            try (DirectoryStream<Path> indexes = Files.newDirectoryStream(root, "segment-*.idx")) {
+                for (Path file : indexes) {
+                    String name = file.getFileName().toString();
+                    segments.add(Integer.parseInt(name.substring("segment-".length(), name.length() - ".idx".length())));
+                }
+            }
+            for (int number : segments) {
+                load(number);
+            }
+            this.segment = segments.isEmpty() ? 1 : segments.last();
+        } catch (IOException | NumberFormatException e) {
+            throw new RuntimeException("Could not initialize pack store!");
+        }
+    }
+
+    private void load(int number) throws IOException {
+        Path segmentFile = segmentFile(number);
+        byte[] records = Files.readAllBytes(indexFile(number));
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        // A trailing partial record is an append cut short by a crash; its content was never referenced
+        while (buffer.remaining() >= RECORD_SIZE) {
+            byte[] hash = new byte[32];
+            buffer.get(hash);
+            byte encoding = buffer.get();
+            long offset = buffer.getLong();
+            long length = buffer.getLong();
+            long lastModified = buffer.getLong();
+            entries.put(HexFormat.of().formatHex(hash), new Entry(segmentFile, offset, length,
+                    encoding == GZIP ? ContentStore.GZIP : null, lastModified));
+        }
+        logger.info("Loaded pack segment {} ({} records)", number, records.length / RECORD_SIZE);
+    }
+
+    /**
+     * Where packed content is, or null if it is not in the pack store.
+     */
+    public Entry find(String hash) {
+        return entries.get(hash);
+    }
+
+    /**
+     * Appends the content of a file to the current segment. The content is durable and indexed when this
+     * returns; the caller may then delete the file.
+     *
+     * @param encoding how the file's bytes are encoded, {@link ContentStore#GZIP} or null; kept as is
+     */
+    public synchronized Entry append(String hash, Path file, String encoding) throws IOException {
+        Entry existing = entries.get(hash);
+        if (existing != null) {
+            return existing;
+        }
+        openForAppend();
+        long length = Files.size(file);
+        // Kept so responses served from the pack carry the same Last-Modified as before
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        long offset = pack.size();
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            long copied = 0;
+            while (copied < length) {
+                long transferred = source.transferTo(copied, length - copied, pack);
+                if (transferred <= 0) {
+                    throw new IOException("File ended before the expected " + length + " bytes were packed");
+                }
+                copied += transferred;
+            }
+        }
+        pack.force(false);
+        writeRecord(hash, encoding == null ? PLAIN : GZIP, offset, length, lastModified);
+        Entry entry = new Entry(segmentFile(segment), offset, length, encoding, lastModified);
+        entries.put(hash, entry);
+        return entry;
+    }
+
+    private void openForAppend() throws IOException {
+        if (pack != null && pack.size() >= SEGMENT_SIZE) {
+            closeChannels();
+            segment++;
+        }
+        if (pack == null) {
+            pack = FileChannel.open(segmentFile(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            index = FileChannel.open(indexFile(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            // Drop a partial record left by a crash so later records stay aligned
+            long aligned = index.size() - index.size() % RECORD_SIZE;
+            if (aligned != index.size()) {
+                index.truncate(aligned);
+            }
+        }
+    }
+
+    private void writeRecord(String hash, byte encoding, long offset, long length, long lastModified) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.put(HexFormat.of().parseHex(hash)).put(encoding).putLong(offset).putLong(length).putLong(lastModified);
+        record.flip();
+        while (record.hasRemaining()) {
+            index.write(record);
+        }
+        index.force(false);
+    }
+
+    private Path segmentFile(int number) {
+        return root.resolve(String.format("segment-%06d.pack", number));
+    }
+
+    private Path indexFile(int number) {
+        return root.resolve(String.format("segment-%06d.idx", number));
+    }
+
+    private void closeChannels() throws IOException {
+        if (pack != null) {
+            pack.close();
+            index.close();
+            pack = null;
+            index = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        closeChannels();
+    }
+
+    /**
+     * {@code length} bytes of {@code file} starting at {@code offset}, stored with {@code encoding}.
+     */
+    public static class Entry {
+        private final Path file;
+        private final long offset;
+        private final long length;
+        private final String encoding;
+        private final long lastModified;
+
+        Entry(Path file, long offset, long length, String encoding, long lastModified) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+            this.encoding = encoding;
+            this.lastModified = lastModified;
+        }
+
+        public Path getFile() { return file; }
+        public long getOffset() { return offset; }
+        public long getLength() { return length; }
+        public String getEncoding() { return encoding; }
+        public long getLastModified() { return lastModified; }
+    }
+}
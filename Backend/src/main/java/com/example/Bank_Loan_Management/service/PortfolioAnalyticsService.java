@@ -0,0 +1,127 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loan exposure by purpose, credit score band and status, aggregated in the database in a single
+ * grouped query. Results are cached for a short time so a dashboard polling it does not rescan the
+ * loan table on every refresh.
+ */
+@Service
+public class PortfolioAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioAnalyticsService.class);
+
+    private static final Duration CACHE_TTL = Duration.ofSeconds(30);
+
+    // Bands match CreditScoringService.getCreditScoreCategory
+    private static final String EXPOSURE_SQL =
+            "SELECT purpose, score_band, status, COUNT(*) AS loan_count, " +
+            "SUM(approved_amount) AS approved_amount, SUM(paid_amount) AS paid_amount, " +
+            "SUM(pending_amount) AS pending_amount, AVG(interest_rate) AS average_interest_rate " +
+            "FROM (SELECT purpose, status, approved_amount, paid_amount, pending_amount, interest_rate, " +
+            "CASE WHEN credit_score IS NULL THEN 'Unscored' " +
+            "WHEN credit_score >= 750 THEN 'Excellent' " +
+            "WHEN credit_score >= 650 THEN 'Good' " +
+            "WHEN credit_score >= 550 THEN 'Fair' " +
+            "ELSE 'Poor' END AS score_band " +
+            "FROM loan_applications) loans " +
+            "GROUP BY purpose, score_band, status " +
+            "ORDER BY purpose, score_band, status";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile PortfolioExposure cached;
+
+    public PortfolioAnalyticsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public PortfolioExposure getExposure() {
+        PortfolioExposure exposure = cached;
+        if (exposure != null && !exposure.isExpired()) {
+            return exposure;
+        }
+        synchronized (this) {
+            // Another request may have refreshed it while this one waited
+            exposure = cached;
+            if (exposure == null || exposure.isExpired()) {
+                long start = System.nanoTime();
+                exposure = new PortfolioExposure(jdbcTemplate.query(EXPOSURE_SQL, (rs, rowNum) -> new ExposureRow(
+                        rs.getString("purpose"),
+                        rs.getString("score_band"),
+                        rs.getString("status"),
+                        rs.getLong("loan_count"),
+                        zeroIfNull(rs.getBigDecimal("approved_amount")),
+                        zeroIfNull(rs.getBigDecimal("paid_amount")),
+                        zeroIfNull(rs.getBigDecimal("pending_amount")),
+                        rs.getBigDecimal("average_interest_rate"))));
+                cached = exposure;
+                logger.debug("Computed portfolio exposure: {} groups in {} ms", exposure.getRows().size(),
+                        Duration.ofNanos(System.nanoTime() - start).toMillis());
+            }
+            return exposure;
+        }
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    public static class PortfolioExposure {
+        private final LocalDateTime generatedAt = LocalDateTime.now();
+        private final long expiresAtNanos = System.nanoTime() + CACHE_TTL.toNanos();
+        private final List<ExposureRow> rows;
+
+        PortfolioExposure(List<ExposureRow> rows) {
+            this.rows = List.copyOf(rows);
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+
+        public LocalDateTime getGeneratedAt() { return generatedAt; }
+        public List<ExposureRow> getRows() { return rows; }
+    }
+
+    public static class ExposureRow {
+        private final String purpose;
+        private final String scoreBand;
+        private final String status;
+        private final long loanCount;
+        private final BigDecimal approvedAmount;
+        private final BigDecimal paidAmount;
+        private final BigDecimal pendingAmount;
+        private final BigDecimal averageInterestRate;
+
+        ExposureRow(String purpose, String scoreBand, String status, long loanCount, BigDecimal approvedAmount,
+                    BigDecimal paidAmount, BigDecimal pendingAmount, BigDecimal averageInterestRate) {
+            this.purpose = purpose;
+            this.scoreBand = scoreBand;
+            this.status = status;
+            this.loanCount = loanCount;
+            this.approvedAmount = approvedAmount;
+            this.paidAmount = paidAmount;
+            this.pendingAmount = pendingAmount;
+            this.averageInterestRate = averageInterestRate;
+        }
+
+        public String getPurpose() { return purpose; }
+        public String getScoreBand() { return scoreBand; }
+        public String getStatus() { return status; }
+        public long getLoanCount() { return loanCount; }
+        public BigDecimal getApprovedAmount() { return approvedAmount; }
+        public BigDecimal getPaidAmount() { return paidAmount; }
+        public BigDecimal getPendingAmount() { return pendingAmount; }
+        public BigDecimal getAverageInterestRate() { return averageInterestRate; }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.Bank_Loan_Management.entity.ScoringRule;
+import com.example.Bank_Loan_Management.entity.ScoringRule.Factor;
+import com.example.Bank_Loan_Management.service.CreditScoringEngine.Bands;
+import com.example.Bank_Loan_Management.service.CreditScoringEngine.FactorTable;
+import com.example.Bank_Loan_Management.service.CreditScoringEngine.Keywords;
+
+/**
+ * Converts between stored {@link ScoringRule} rows and the engine's compiled factor table.
+ */
+final class ScoringRuleCompiler {
+
+    // Compiled bounds must stay strictly inside the engine's +/-10^11 clamp
+    private static final BigDecimal MAX_DECIMAL_BOUND = new BigDecimal("100000000000");
+    // Keeps bound * income inside a long for the fixed-point DTI comparison
+    private static final int MAX_DTI_PERCENT = 500;
+
+    private ScoringRuleCompiler() {
+    }
+
+    /**
+     * Compiles a rule set, rejecting rules the engine cannot represent exactly. A factor with no rows
+     * scores nothing.
+     */
+    static CreditScoringEngine compile(int version, Collection<ScoringRule> rules) {
+        Map<Factor, List<ScoringRule>> byFactor = new EnumMap<>(Factor.class);
+        for (ScoringRule rule : rules) {
+            if (rule.getFactor() == null) {
+                throw new IllegalArgumentException("Every scoring rule needs a factor");
+            }
+            byFactor.computeIfAbsent(rule.getFactor(), factor -> new ArrayList<>()).add(rule);
+        }
+
+        FactorTable table = new FactorTable();
+        table.version = version;
+        table.income = decimalBands(Factor.INCOME, byFactor);
+        table.debtToIncome = debtToIncomeBands(byFactor);
+        table.employment = keywords(Factor.EMPLOYMENT_STATUS, byFactor);
+        table.age = integerBands(Factor.AGE, byFactor);
+        table.maritalStatus = keywords(Factor.MARITAL_STATUS, byFactor);
+        table.creditHistoryLength = integerBands(Factor.CREDIT_HISTORY_LENGTH, byFactor);
+        table.latePayments = integerBands(Factor.LATE_PAYMENTS, byFactor);
+        table.creditUtilization = decimalBands(Factor.CREDIT_UTILIZATION, byFactor);
+        table.creditInquiries = integerBands(Factor.CREDIT_INQUIRIES, byFactor);
+        table.creditMix = integerBands(Factor.CREDIT_MIX, byFactor);
+        table.fullyPaidPoints = singlePoints(Factor.LOAN_FULLY_PAID, byFactor);
+        table.onTimePoints = singlePoints(Factor.LOAN_ON_TIME, byFactor);
+        table.defaultedPoints = singlePoints(Factor.LOAN_DEFAULTED, byFactor);
+        table.rejectedPoints = singlePoints(Factor.LOAN_REJECTED, byFactor);
+        table.amount = decimalBands(Factor.AMOUNT, byFactor);
+        table.term = integerBands(Factor.TERM, byFactor);
+        table.purpose = keywords(Factor.PURPOSE, byFactor);
+        return table.compile();
+    }
+
+    /**
+     * The built-in factor table as rule rows, used to seed the first rule set version.
+     */
+    static List<ScoringRule> defaultRules() {
+        FactorTable table = CreditScoringEngine.defaultTable();
+        List<ScoringRule> rules = new ArrayList<>();
+        addDecimalBands(rules, Factor.INCOME, table.income);
+        for (int i = 0; i < table.debtToIncome.bounds.length; i++) {
+            rules.add(rule(Factor.DEBT_TO_INCOME, BigDecimal.valueOf((table.debtToIncome.bounds[i] - 5) / 10), null,
+                    table.debtToIncome.points[i]));
+        }
+        rules.add(rule(Factor.DEBT_TO_INCOME, null, null, table.debtToIncome.otherwise));
+        addKeywords(rules, Factor.EMPLOYMENT_STATUS, table.employment);
+        addIntegerBands(rules, Factor.AGE, table.age);
+        addKeywords(rules, Factor.MARITAL_STATUS, table.maritalStatus);
+        addIntegerBands(rules, Factor.CREDIT_HISTORY_LENGTH, table.creditHistoryLength);
+        addIntegerBands(rules, Factor.LATE_PAYMENTS, table.latePayments);
+        addDecimalBands(rules, Factor.CREDIT_UTILIZATION, table.creditUtilization);
+        addIntegerBands(rules, Factor.CREDIT_INQUIRIES, table.creditInquiries);
+        addIntegerBands(rules, Factor.CREDIT_MIX, table.creditMix);
+        rules.add(rule(Factor.LOAN_FULLY_PAID, null, null, table.fullyPaidPoints));
+        rules.add(rule(Factor.LOAN_ON_TIME, null, null, table.onTimePoints));
+        rules.add(rule(Factor.LOAN_DEFAULTED, null, null, table.defaultedPoints));
+        rules.add(rule(Factor.LOAN_REJECTED, null, null, table.rejectedPoints));
+        addDecimalBands(rules, Factor.AMOUNT, table.amount);
+        addIntegerBands(rules, Factor.TERM, table.term);
+        addKeywords(rules, Factor.PURPOSE, table.purpose);
+        return rules;
+    }
+
+    private static Bands decimalBands(Factor factor, Map<Factor, List<ScoringRule>> byFactor) {
+        return bands(factor, byFactor, bound -> {
+            if (bound.stripTrailingZeros().scale() > CreditScoringEngine.FIXED_SCALE
+                    || bound.abs().compareTo(MAX_DECIMAL_BOUND) >= 0) {
+                throw new IllegalArgumentException(factor + " bounds need at most "
+                        + CreditScoringEngine.FIXED_SCALE + " decimals and must be below " + MAX_DECIMAL_BOUND);
+            }
+            return CreditScoringEngine.toFixed(bound.setScale(CreditScoringEngine.FIXED_SCALE));
+        });
+    }
+
+    private static Bands integerBands(Factor factor, Map<Factor, List<ScoringRule>> byFactor) {
+        return bands(factor, byFactor, bound -> {
+            if (bound.stripTrailingZeros().scale() > 0) {
+                throw new IllegalArgumentException(factor + " bounds must be whole numbers");
+            }
+            return bound.longValueExact();
+        });
+    }
+
+    private static Bands debtToIncomeBands(Map<Factor, List<ScoringRule>> byFactor) {
+        Bands percentBands = integerBands(Factor.DEBT_TO_INCOME, byFactor);
+        for (long bound : percentBands.bounds) {
+            if (bound < 0 || bound > MAX_DTI_PERCENT) {
+                throw new IllegalArgumentException("DEBT_TO_INCOME bounds must be between 0 and " + MAX_DTI_PERCENT);
+            }
+        }
+        return Bands.debtToIncome(percentBands.bounds, percentBands.points, percentBands.otherwise);
+    }
+
+    private static Bands bands(Factor factor, Map<Factor, List<ScoringRule>> byFactor, BoundConverter converter) {
+        List<ScoringRule> bounded = new ArrayList<>();
+        Integer otherwise = null;
+        for (ScoringRule rule : byFactor.getOrDefault(factor, List.of())) {
+            if (rule.getUpperBound() != null) {
+                bounded.add(rule);
+            } else if (otherwise == null) {
+                otherwise = rule.getPoints();
+            } else {
+                throw new IllegalArgumentException(factor + " has more than one rule without an upper bound");
+            }
+        }
+        bounded.sort(Comparator.comparing(ScoringRule::getUpperBound));
+        long[] bounds = new long[bounded.size()];
+        int[] points = new int[bounded.size()];
+        for (int i = 0; i < bounded.size(); i++) {
+            bounds[i] = converter.toBound(bounded.get(i).getUpperBound());
+            points[i] = bounded.get(i).getPoints();
+        }
+        try {
+            return new Bands(bounds, points, otherwise != null ? otherwise : 0);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(factor + ": " + e.getMessage());
+        }
+    }
+
+    private static Keywords keywords(Factor factor, Map<Factor, List<ScoringRule>> byFactor) {
+        List<String> keys = new ArrayList<>();
+        List<Integer> points = new ArrayList<>();
+        Integer otherwise = null;
+        for (ScoringRule rule : byFactor.getOrDefault(factor, List.of())) {
+            String keyword = rule.getKeyword() != null ? rule.getKeyword().trim() : null;
+            if (keyword != null && !keyword.isEmpty()) {
+                for (String existing : keys) {
+                    if (existing.equalsIgnoreCase(keyword)) {
+                        throw new IllegalArgumentException(factor + " lists keyword '" + keyword + "' more than once");
+                    }
+                }
+                keys.add(keyword);
+                points.add(rule.getPoints());
+            } else if (otherwise == null) {
+                otherwise = rule.getPoints();
+            } else {
+                throw new IllegalArgumentException(factor + " has more than one rule without a keyword");
+            }
+        }
+        return new Keywords(keys.toArray(new String[0]), points.stream().mapToInt(Integer::intValue).toArray(),
+                otherwise != null ? otherwise : 0);
+    }
+
+    private static int singlePoints(Factor factor, Map<Factor, List<ScoringRule>> byFactor) {
+        List<ScoringRule> rules = byFactor.getOrDefault(factor, List.of());
+        if (rules.size() > 1) {
+            throw new IllegalArgumentException(factor + " takes a single rule");
+        }
+        return rules.isEmpty() ? 0 : rules.get(0).getPoints();
+    }
+
+    private static void addDecimalBands(List<ScoringRule> rules, Factor factor, Bands bands) {
+        for (int i = 0; i < bands.bounds.length; i++) {
+            rules.add(rule(factor, BigDecimal.valueOf(bands.bounds[i], CreditScoringEngine.FIXED_SCALE), null, bands.points[i]));
+        }
+        rules.add(rule(factor, null, null, bands.otherwise));
+    }
+
+    private static void addIntegerBands(List<ScoringRule> rules, Factor factor, Bands bands) {
+        for (int i = 0; i < bands.bounds.length; i++) {
+            rules.add(rule(factor, BigDecimal.valueOf(bands.bounds[i]), null, bands.points[i]));
+        }
+        rules.add(rule(factor, null, null, bands.otherwise));
+    }
+
+    private static void addKeywords(List<ScoringRule> rules, Factor factor, Keywords keywords) {
+        for (int i = 0; i < keywords.keys.length; i++) {
+            rules.add(rule(factor, null, keywords.keys[i], keywords.points[i]));
+        }
+        rules.add(rule(factor, null, null, keywords.otherwise));
+    }
+
+    private static ScoringRule rule(Factor factor, BigDecimal upperBound, String keyword, int points) {
+        ScoringRule rule = new ScoringRule();
+        rule.setFactor(factor);
+        rule.setUpperBound(upperBound);
+        rule.setKeyword(keyword);
+        rule.setPoints(points);
+        return rule;
+    }
+
+    @FunctionalInterface
+    private interface BoundConverter {
+        long toBound(BigDecimal bound);
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.Bank_Loan_Management.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-sent events for loan and document status changes.
+ *
+ * Each connection is an async {@link SseEmitter}, so an open stream holds no request thread. Publishing
+ * only appends to each matching subscriber's bounded queue; a small shared pool drains the queues and
+ * writes to the sockets, at most one task per subscriber at a time. A subscriber that falls more than
+ * {@value #BUFFER_SIZE} events behind loses its backlog and gets a single "resync" event telling it to
+ * reload its lists instead. Borrowers only see their own events; staff roles see all of them.
+ *
+ * Socket writes block, so a client that stops reading would pin a sender thread. A write still running
+ * after {@link #WRITE_TIMEOUT} drops that subscriber, and the pool gets an extra thread for as long as the
+ * stuck write lasts, so stalled clients never take delivery capacity away from healthy ones.
+ */
+@Service
+public class StatusEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusEventService.class);
+
+    public static final int MAX_SUBSCRIBERS = 10_000;
+    static final int BUFFER_SIZE = 256;
+    private static final int SENDER_THREADS = 4;
+    private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(10);
+    private static final long WRITE_CHECK_MILLIS = 1_000;
+    private static final long CONNECTION_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+    private static final long HEARTBEAT_SECONDS = 20;
+    private static final long RECONNECT_MILLIS = 5_000;
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ThreadPoolExecutor senders = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS, 0,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "status-events-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    // Sender threads still blocked in a write that timed out; the pool is grown by this many
+    private final AtomicInteger stalledSenders = new AtomicInteger();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "status-events-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StatusEventService() {
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        heartbeats.scheduleWithFixedDelay(this::dropStalledSubscribers, WRITE_CHECK_MILLIS, WRITE_CHECK_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream for a user. Staff (loan managers, managers and admins) receive every event, anyone
+     * else only events about their own loans and documents.
+     */
+    public SseEmitter subscribe(Long userId, boolean staff) {
+        return subscribe(userId, staff, new SseEmitter(CONNECTION_TIMEOUT_MILLIS));
+    }
+
+    SseEmitter subscribe(Long userId, boolean staff, SseEmitter emitter) {
+        if (subscribers.size() >= MAX_SUBSCRIBERS) {
+            throw new RuntimeException("Too many open event streams");
+        }
+        Subscriber subscriber = new Subscriber(emitter, userId, staff);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        // Sent right away so the client sees the stream open and learns the reconnect delay
+        subscriber.offer(HEARTBEAT);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public void publishLoanStatus(Long userId, Long applicationId, String status) {
+        publish(new StatusEvent("loan", applicationId, userId, status));
+    }
+
+    public void publishDocumentStatus(Long userId, Long documentId, String status) {
+        publish(new StatusEvent("document", documentId, userId, status));
+    }
+
+    /**
+     * Fans the event out once the current transaction commits, so a client reacting to it reads the new state.
+     */
+    private void publish(StatusEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fanOut(event);
+                }
+            });
+        } else {
+            fanOut(event);
+        }
+    }
+
+    private void fanOut(StatusEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.staff || event.userId.equals(subscriber.userId)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            // Any event keeps proxies from timing the connection out; only idle streams need a heartbeat
+            if (subscriber.queued.get() == 0) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.dropIfStalled(now);
+        }
+    }
+
+    private synchronized void resizeSenders() {
+        int size = SENDER_THREADS + Math.max(0, stalledSenders.get());
+        // The core size may never exceed the maximum, so grow the maximum first and shrink it last
+        if (size > senders.getMaximumPoolSize()) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final boolean staff;
+        private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resync;
+        private volatile boolean closed;
+        // System.nanoTime() when the current write started, 0 while no write is running
+        private volatile long writeStartedAt;
+        private final AtomicBoolean stalled = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Long userId, boolean staff) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.staff = staff;
+        }
+
+        void offer(Object event) {
+            if (closed) {
+                return;
+            }
+            if (queued.incrementAndGet() > BUFFER_SIZE) {
+                queued.decrementAndGet();
+                resync = true;
+            } else {
+                queue.add(event);
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // Rejected during shutdown
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                if (resync) {
+                    resync = false;
+                    while (queue.poll() != null) {
+                        queued.decrementAndGet();
+                    }
+                    send(SseEmitter.event().name("resync").data("{}"));
+                }
+                Object event;
+                while (!closed && !resync && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (event == HEARTBEAT) {
+                        send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("heartbeat"));
+                    } else {
+                        StatusEvent statusEvent = (StatusEvent) event;
+                        send(SseEmitter.event()
+                                .id(Long.toString(statusEvent.sequence))
+                                .name(statusEvent.type)
+                                .data(statusEvent.json));
+                    }
+                }
+                draining.set(false);
+                // An offer that lost the race for the flag relies on this pass to pick its event up
+            } while (!closed && (resync || !queue.isEmpty()) && draining.compareAndSet(false, true));
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            writeStartedAt = Math.max(1, System.nanoTime());
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed
+                logger.debug("Dropping event stream for user {}: {}", userId, e.getMessage());
+                close();
+                try {
+                    emitter.completeWithError(e);
+                } catch (RuntimeException ignored) {
+                    // Already completed
+                }
+            } finally {
+                writeStartedAt = 0;
+                if (stalled.compareAndSet(true, false)) {
+                    // The write that timed out has returned, so its thread is back in the pool
+                    stalledSenders.decrementAndGet();
+                    resizeSenders();
+                }
+            }
+        }
+
+        void dropIfStalled(long now) {
+            long started = writeStartedAt;
+            if (started == 0 || now - started < WRITE_TIMEOUT.toNanos() || !stalled.compareAndSet(false, true)) {
+                return;
+            }
+            stalledSenders.incrementAndGet();
+            resizeSenders();
+            logger.info("Dropping event stream for user {}: a write took longer than {} s", userId,
+                    WRITE_TIMEOUT.toSeconds());
+            close();
+            try {
+                // Ends the response, which also fails the blocked write once the connection is closed
+                emitter.completeWithError(new TimeoutException("Event stream write timed out"));
+            } catch (RuntimeException ignored) {
+                // Already completed
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+
+    private final class StatusEvent {
+        private final long sequence = StatusEventService.this.sequence.incrementAndGet();
+        private final String type;
+        private final Long userId;
+        // Serialized once and shared by every subscriber it is sent to
+        private final String json;
+
+        StatusEvent(String type, Long id, Long userId, String status) {
+            this.type = type;
+            this.userId = userId;
+            this.json = "{\"type\":\"" + type + "\",\"id\":" + id + ",\"userId\":" + userId
+                    + ",\"status\":\"" + status + "\",\"occurredAt\":\"" + LocalDateTime.now() + "\"}";
+        }
+    }
+}
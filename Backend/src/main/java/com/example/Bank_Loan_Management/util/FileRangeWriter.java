@@ -0,0 +1,183 @@
+package com.example.Bank_Loan_Management.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a stretch of a file to a servlet response with conditional GET and single byte-range support.
+ *
+ * When the container supports it (Tomcat's NIO connector does by default) the bytes are handed to the
+ * connector's sendfile, so they go from the page cache to the socket without passing through the JVM.
+ * Otherwise they are copied with {@link FileChannel#transferTo}. Multi-range requests get the whole file,
+ * which RFC 9110 allows.
+ */
+public final class FileRangeWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Stored content never changes under the same validators, so clients may keep it for a year
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+    // Content whose representation may still change, e.g. before its type is known, is revalidated each time
+    private static final String CACHE_CONTROL_REVALIDATE = "private, no-cache";
+
+    private FileRangeWriter() {
+    }
+
+    public static void write(HttpServletRequest request, HttpServletResponse response, Path file, long offset,
+                             long length, String eTag, long lastModified) throws IOException {
+        write(request, response, file, offset, length, eTag, lastModified, true);
+    }
+
+    /**
+     * @param file          the file holding the content
+     * @param offset        where the content starts in the file
+     * @param length        content length in bytes
+     * @param eTag          strong validator for the content, quoted
+     * @param lastModified  modification time in epoch milliseconds
+     * @param immutable     whether clients may keep the response without revalidating
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, Path file, long offset,
+                             long length, String eTag, long lastModified, boolean immutable) throws IOException {
+        // Sets ETag and Last-Modified, and answers 304 or 412 on its own
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? CACHE_CONTROL : CACHE_CONTROL_REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, eTag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count <= 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, offset + start);
+            // Exclusive
+            request.setAttribute(SENDFILE_END, offset + end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = offset + start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    throw new IOException("File ended before the expected " + count + " bytes were sent");
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    /**
+     * Writes content that can only be produced as a stream, such as stored content being decompressed.
+     * Conditional GET works as for files; ranges are not offered, so the whole content is always sent.
+     */
+    public static void writeStream(HttpServletRequest request, HttpServletResponse response, InputStreamSource content,
+                                   long length, String eTag, long lastModified, boolean immutable) throws IOException {
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? CACHE_CONTROL : CACHE_CONTROL_REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        try (InputStream in = content.getInputStream()) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    // A Range is only honored if If-Range, when present, still names this version of the content
+    private static boolean ifRangeMatches(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * {start, end} for a single satisfiable range, an empty array to ignore the header (multiple ranges or
+     * another unit), or null when the range cannot be satisfied.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (end < start) {
+                    return start >= length ? null : new long[0];
+                }
+            }
+            return start >= length ? null : new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
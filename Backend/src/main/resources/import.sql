@@ -12,4 +12,10 @@ INSERT INTO loan_applications (user_id, amount, term, purpose, status, credit_sc
 INSERT INTO documents (user_id, loan_application_id, document_type, file_name, file_path, content_type, file_size, status) VALUES
 (3, 1, 'IDENTITY', 'passport.pdf', 'uploads/test_passport.pdf', 'application/pdf', 1024, 'UPLOADED'),
 (3, 1, 'INCOME', 'salary_slip.pdf', 'uploads/test_salary.pdf', 'application/pdf', 2048, 'VERIFIED'),
-(3, 1, 'ADDRESS', 'utility_bill.pdf', 'uploads/test_utility.pdf', 'application/pdf', 1536, 'UPLOADED');
\ No newline at end of file
+(3, 1, 'ADDRESS', 'utility_bill.pdf', 'uploads/test_utility.pdf', 'application/pdf', 1536, 'UPLOADED');
+-- Per-type document counts for the seeded documents; maintained incrementally from here on
+INSERT INTO document_type_counts (user_id, document_type, documents, verified)
+SELECT user_id, document_type, COUNT(*), SUM(CASE WHEN status = 'VERIFIED' THEN 1 ELSE 0 END) FROM documents GROUP BY user_id, document_type;
+-- Per-status document counts for the review queue size; also maintained incrementally
+INSERT INTO document_status_counts (status, document_type, documents)
+SELECT status, document_type, COUNT(*) FROM documents GROUP BY status, document_type;
@@ -0,0 +1,99 @@
+package com.example.Bank_Loan_Management.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.example.Bank_Loan_Management.entity.Document;
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.DocumentRepository;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+import com.example.Bank_Loan_Management.service.DocumentService;
+
+/**
+ * The text rendition of a plain-text upload has the upload's own hash, so it is served from whatever the
+ * upload was stored as: here a gzip copy, since repetitive text compresses well.
+ */
+@SpringBootTest
+class DocumentRenditionTest {
+
+    private static final String TEXT = "Monthly salary 4,200.00 EUR, paid on the 25th.\n".repeat(200);
+
+    @Autowired
+    private LoanController loanController;
+    @Autowired
+    private DocumentService documentService;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void textOfCompressedUploadIsServedDecodedOrAsStored() throws Exception {
+        User borrower = new User();
+        borrower.setUsername("rendition-borrower");
+        borrower.setPassword("unused");
+        borrower.setEmail("rendition-borrower@example.com");
+        borrower.setRole(User.Role.USER);
+        borrower.setCreatedAt(LocalDateTime.now());
+        borrower = userRepository.save(borrower);
+        Document uploaded = documentService.uploadDocument(borrower, new MockMultipartFile("file", "salary.txt",
+                "text/plain", TEXT.getBytes(StandardCharsets.UTF_8)), "INCOME");
+        assertEquals("gzip", uploaded.getContentEncoding());
+        Document processed = awaitProcessing(uploaded.getId());
+        assertEquals(uploaded.getContentHash(), processed.getTextHash());
+
+        MockHttpServletResponse decoded = text(processed.getId(), null);
+        assertEquals(HttpStatus.OK.value(), decoded.getStatus());
+        assertEquals(TEXT, new String(decoded.getContentAsByteArray(), StandardCharsets.UTF_8));
+
+        MockHttpServletResponse encoded = text(processed.getId(), "gzip");
+        assertEquals(HttpStatus.OK.value(), encoded.getStatus());
+        assertEquals("gzip", encoded.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(TEXT, gunzip(encoded.getContentAsByteArray()));
+    }
+
+    private Document awaitProcessing(Long documentId) throws InterruptedException {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Document document = documentRepository.findById(documentId).orElseThrow();
+            if (document.getStatus() != Document.Status.PROCESSING) {
+                assertEquals(Document.Status.UPLOADED, document.getStatus());
+                assertNotNull(document.getTextHash());
+                return document;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Document " + documentId + " was not processed in time");
+    }
+
+    private MockHttpServletResponse text(Long documentId, String acceptEncoding) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/loan-manager/documents/" + documentId + "/text");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        loanController.viewDocumentText(documentId, request, response);
+        return response;
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.Bank_Loan_Management.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Loan listings must cost a fixed number of SQL statements per page, however many rows and distinct
+ * users the page holds. The controller is called outside any transaction, so an association left out
+ * of a fetch plan would also fail here with a LazyInitializationException.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoanListingQueryCountTest {
+
+    private static final int BORROWERS = 12;
+    private static final int LOANS_PER_BORROWER = 3;
+
+    @Autowired
+    private LoanController loanController;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void createLoans() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User loanManager = userRepository.save(user("qc-loan-manager", User.Role.LOAN_MANAGER));
+        User manager = userRepository.save(user("qc-manager", User.Role.MANAGER));
+        LocalDateTime appliedDate = LocalDateTime.now().minusDays(1);
+        for (int b = 0; b < BORROWERS; b++) {
+            User borrower = userRepository.save(user("qc-borrower-" + b, User.Role.USER));
+            for (int l = 0; l < LOANS_PER_BORROWER; l++) {
+                LoanApplication loan = new LoanApplication();
+                loan.setUser(borrower);
+                loan.setLoanManager(loanManager);
+                loan.setManager(manager);
+                loan.setAmount(BigDecimal.valueOf(5000 + 1000L * l));
+                loan.setTerm(24);
+                loan.setPurpose("Personal");
+                loan.setStatus(LoanApplication.Status.APPROVED);
+                loan.setCreditScore(650);
+                loan.setAppliedDate(appliedDate = appliedDate.plusMinutes(1));
+                loanApplicationRepository.save(loan);
+            }
+        }
+    }
+
+    @Test
+    void adminLoanPageTakesOneStatement() {
+        assertEquals(1, statementsFor(() -> loanController.getAllLoans(page(5))));
+        assertEquals(1, statementsFor(() -> loanController.getAllLoans(page(30))));
+        assertEquals(1, statementsFor(() -> loanController.getLoansByStatus("approved", page(30))));
+    }
+
+    @Test
+    void managerLoanPageTakesOneStatement() {
+        assertEquals(1, statementsFor(() -> loanController.getLoansForApproval(page(5), get(null))));
+        assertEquals(1, statementsFor(() -> loanController.getLoansForApproval(page(30), get(null))));
+        assertEquals(1, statementsFor(() -> loanController.getLoansForVerification(page(30), get(null))));
+    }
+
+    @Test
+    void unchangedManagerListingsAreAnsweredWithoutStatements() {
+        String eTag = loanController.getLoansForApproval(page(30), get(null)).getHeaders().getETag();
+
+        ServletWebRequest loans = get(eTag);
+        statistics.clear();
+        assertNull(loanController.getLoansForApproval(page(30), loans));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), loans.getResponse().getStatus());
+
+        String documentsETag = loanController.getAllDocumentsForVerification(get(null)).getHeaders().getETag();
+        ServletWebRequest documents = get(documentsETag);
+        statistics.clear();
+        assertNull(loanController.getAllDocumentsForVerification(documents));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void myLoansTakeTwoStatements() {
+        UserDetails borrower = org.springframework.security.core.userdetails.User
+                .withUsername("qc-borrower-0").password("unused").roles("USER").build();
+        statistics.clear();
+        ResponseEntity<List<LoanController.LoanSummaryDTO>> response = loanController.getMyLoans(borrower);
+        // The user lookup, then the loans with their managers
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(LOANS_PER_BORROWER, response.getBody().size());
+        assertEquals("qc-manager", response.getBody().get(0).getManager().getUsername());
+    }
+
+    private long statementsFor(Runnable listing) {
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static ServletWebRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/manager/loans");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private static LoanController.LoanListRequest page(int limit) {
+        LoanController.LoanListRequest request = new LoanController.LoanListRequest();
+        request.setLimit(limit);
+        return request;
+    }
+
+    private static User user(String username, User.Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("unused");
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+}
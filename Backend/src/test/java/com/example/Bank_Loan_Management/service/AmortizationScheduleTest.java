@@ -0,0 +1,99 @@
+package com.example.Bank_Loan_Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class AmortizationScheduleTest {
+
+    @Test
+    void roundsMonthlyInterestHalfUpToTheCent() throws IOException {
+        // 1% a month on 66,998 cents is 669.98 cents, on 33,666 cents 336.66 cents
+        assertEquals(String.join("\n",
+                        "month,payment,principal,interest,balance",
+                        "1,340.02,330.02,10.00,669.98",
+                        "2,340.02,333.32,6.70,336.66",
+                        "3,340.03,336.66,3.37,0.00",
+                        ""),
+                csv(AmortizationSchedule.compute(new BigDecimal("1000"), new BigDecimal("12"), 3)));
+
+        // Exactly half a cent rounds up
+        AmortizationSchedule halfCent = AmortizationSchedule.compute(new BigDecimal("0.50"), new BigDecimal("12"), 1);
+        assertEquals(new BigDecimal("0.01"), halfCent.getTotalInterest());
+        assertEquals(new BigDecimal("0.51"), halfCent.getTotalRepayment());
+    }
+
+    @Test
+    void roundsInputsHalfUp() {
+        AmortizationSchedule schedule = AmortizationSchedule.compute(new BigDecimal("999.995"), new BigDecimal("8.505"), 12);
+        assertEquals(new BigDecimal("1000.00"), schedule.getPrincipal());
+        assertEquals(new BigDecimal("8.51"), schedule.getAnnualRate());
+    }
+
+    @Test
+    void lastInstallmentAbsorbsTheRemainder() throws IOException {
+        assertEquals(String.join("\n",
+                        "month,payment,principal,interest,balance",
+                        "1,33.34,33.34,0.00,66.66",
+                        "2,33.34,33.34,0.00,33.32",
+                        "3,33.32,33.32,0.00,0.00",
+                        ""),
+                csv(AmortizationSchedule.compute(new BigDecimal("100"), BigDecimal.ZERO, 3)));
+    }
+
+    @Test
+    void principalIsRepaidExactlyForRandomLoans() throws IOException {
+        Random random = new Random(20240902L);
+        for (int i = 0; i < 2_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(100_000_000), 2);
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(3_000), 2);
+            int term = 1 + random.nextInt(AmortizationSchedule.MAX_TERM);
+            AmortizationSchedule schedule = AmortizationSchedule.compute(amount, rate, term);
+
+            long principal = 0;
+            long interest = 0;
+            String[] lines = csv(schedule).split("\n");
+            assertEquals(term + 1, lines.length);
+            for (int month = 1; month <= term; month++) {
+                String[] fields = lines[month].split(",");
+                long payment = cents(fields[1]);
+                principal += cents(fields[2]);
+                interest += cents(fields[3]);
+                assertEquals(payment, cents(fields[2]) + cents(fields[3]));
+                // Every installment but the last is the computed one, unless rounding paid the loan off early
+                if (month < term && cents(fields[4]) > 0) {
+                    assertEquals(cents(schedule.getMonthlyInstallment().toPlainString()), payment);
+                }
+            }
+            assertEquals(0, cents(lines[term].split(",")[4]));
+            assertEquals(cents(amount.toPlainString()), principal);
+            assertEquals(cents(schedule.getTotalInterest().toPlainString()), interest);
+        }
+    }
+
+    @Test
+    void rejectsInvalidLoans() {
+        assertThrows(IllegalArgumentException.class, () -> AmortizationSchedule.compute(BigDecimal.ZERO, BigDecimal.TEN, 12));
+        assertThrows(IllegalArgumentException.class, () -> AmortizationSchedule.compute(BigDecimal.TEN, BigDecimal.TEN, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> AmortizationSchedule.compute(BigDecimal.TEN, BigDecimal.TEN, AmortizationSchedule.MAX_TERM + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> AmortizationSchedule.compute(BigDecimal.TEN, BigDecimal.ONE.negate(), 12));
+    }
+
+    private static String csv(AmortizationSchedule schedule) throws IOException {
+        StringWriter out = new StringWriter();
+        schedule.writeCsv(out);
+        return out.toString();
+    }
+
+    private static long cents(String value) {
+        return new BigDecimal(value).movePointRight(2).longValueExact();
+    }
+}
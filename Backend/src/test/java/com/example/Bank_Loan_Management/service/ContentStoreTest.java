@@ -0,0 +1,134 @@
+package com.example.Bank_Loan_Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.Bank_Loan_Management.entity.ContentBlob;
+
+/**
+ * Identical content is stored once, whether the first copy is a loose file, a gzip copy or packed, and
+ * keeps the form it was first stored in.
+ */
+class ContentStoreTest {
+
+    private static final String TEXT = "2024-09-25 SALARY ACME LTD 4,200.00 EUR\n".repeat(200);
+
+    @TempDir
+    Path uploads;
+
+    private JdbcTemplate jdbcTemplate;
+    private PackStore packStore;
+    private ContentStore contentStore;
+
+    @BeforeEach
+    void createStore() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:content-store-test;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS content_blobs (hash VARCHAR(64) PRIMARY KEY, " +
+                "size BIGINT NOT NULL, encoding VARCHAR(16), created_at TIMESTAMP NOT NULL, " +
+                "pack_state VARCHAR(8))");
+        jdbcTemplate.execute("DELETE FROM content_blobs");
+        packStore = new PackStore(uploads);
+        contentStore = new ContentStore(jdbcTemplate, packStore, uploads);
+    }
+
+    @AfterEach
+    void closeStore() throws IOException {
+        packStore.close();
+    }
+
+    @Test
+    void duplicateOfLooseFileIsNotStoredAgain() throws IOException {
+        ContentStore.StoredContent first = store(DocumentCompression.NO_COMPRESSION);
+        assertTrue(first.isWritten());
+        assertNull(first.getEncoding());
+
+        // Compression applies to new content only
+        ContentStore.StoredContent second = store(Deflater.DEFAULT_COMPRESSION);
+        assertEquals(first.getHash(), second.getHash());
+        assertFalse(second.isWritten());
+        assertNull(second.getEncoding());
+        assertFalse(Files.exists(contentStore.resolve(first.getHash(), ContentStore.GZIP)));
+
+        assertBlob(first.getHash(), null);
+        assertEquals(TEXT, read(first.getHash(), null));
+        assertNothingIncoming();
+    }
+
+    @Test
+    void duplicateOfGzipCopyIsNotStoredAgain() throws IOException {
+        ContentStore.StoredContent first = store(Deflater.DEFAULT_COMPRESSION);
+        assertTrue(first.isWritten());
+        assertEquals(ContentStore.GZIP, first.getEncoding());
+        assertTrue(first.getStoredSize() < first.getSize());
+
+        ContentStore.StoredContent second = store(DocumentCompression.NO_COMPRESSION);
+        assertFalse(second.isWritten());
+        assertEquals(ContentStore.GZIP, second.getEncoding());
+        assertEquals(first.getStoredSize(), second.getStoredSize());
+        assertFalse(Files.exists(contentStore.resolve(first.getHash())));
+
+        assertBlob(first.getHash(), ContentStore.GZIP);
+        assertEquals(TEXT, read(first.getHash(), ContentStore.GZIP));
+        assertNothingIncoming();
+    }
+
+    @Test
+    void duplicateOfPackedContentIsNotStoredAgain() throws IOException {
+        ContentStore.StoredContent first = store(Deflater.DEFAULT_COMPRESSION);
+        Path loose = contentStore.resolve(first.getHash(), ContentStore.GZIP);
+        PackStore.Entry packed = packStore.append(first.getHash(), loose, ContentStore.GZIP);
+        Files.delete(loose);
+
+        ContentStore.StoredContent second = store(Deflater.DEFAULT_COMPRESSION);
+        assertFalse(second.isWritten());
+        assertEquals(ContentStore.GZIP, second.getEncoding());
+        assertFalse(Files.exists(loose));
+        assertFalse(Files.exists(contentStore.resolve(first.getHash())));
+
+        assertBlob(first.getHash(), ContentStore.GZIP);
+        assertEquals(packed.getFile(), contentStore.locate(first.getHash(), ContentStore.GZIP).getFile());
+        assertEquals(TEXT, read(first.getHash(), ContentStore.GZIP));
+        assertNothingIncoming();
+    }
+
+    private ContentStore.StoredContent store(int compressionLevel) throws IOException {
+        return contentStore.store(new ByteArrayInputStream(TEXT.getBytes(StandardCharsets.UTF_8)), Long.MAX_VALUE,
+                compressionLevel);
+    }
+
+    private String read(String hash, String encoding) throws IOException {
+        try (InputStream in = contentStore.open(hash, encoding)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void assertBlob(String hash, String encoding) {
+        ContentBlob blob = contentStore.find(hash);
+        assertEquals(encoding, blob.getEncoding());
+        assertEquals(TEXT.length(), blob.getSize().longValue());
+    }
+
+    private void assertNothingIncoming() throws IOException {
+        try (Stream<Path> files = Files.list(uploads.resolve("incoming"))) {
+            assertEquals(0, files.count());
+        }
+    }
+}
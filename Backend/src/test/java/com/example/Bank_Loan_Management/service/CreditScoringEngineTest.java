@@ -0,0 +1,300 @@
+package com.example.Bank_Loan_Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.Bank_Loan_Management.entity.User;
+
+class CreditScoringEngineTest {
+
+    private static final String[] EMPLOYMENT = {null, "EMPLOYED", "employed", "Self_Employed", "UNEMPLOYED", "STUDENT", ""};
+    private static final String[] MARITAL = {null, "MARRIED", "married", "SINGLE", "DIVORCED"};
+    private static final String[] CREDIT_MIX = {null, "", "mortgage", "mortgage,auto", "mortgage,credit_card,auto",
+            ",", ",,,", "auto,,", "auto,,mortgage", ",auto", "a,b,c,d,"};
+    private static final String[] PURPOSES = {null, "Business", "personal", "Home Purchase", "EDUCATION", "travel"};
+    private static final long[] BOUNDARIES = {0, 10, 30, 50, 10_000, 25_000, 50_000, 100_000};
+
+    private final CreditScoringEngine engine = CreditScoringEngine.defaultEngine();
+
+    @Test
+    void matchesOriginalRulesForRandomProfiles() {
+        Random random = new Random(20240611L);
+        for (int i = 0; i < 200_000; i++) {
+            User user = new User();
+            user.setAnnualIncome(randomAmount(random, 200_000));
+            user.setExistingDebts(randomAmount(random, 100_000));
+            user.setCreditUtilization(randomAmount(random, 100));
+            user.setEmploymentStatus(pick(random, EMPLOYMENT));
+            user.setMaritalStatus(pick(random, MARITAL));
+            user.setCreditMix(pick(random, CREDIT_MIX));
+            user.setAge(randomInt(random, 15, 80));
+            user.setCreditHistoryLength(randomInt(random, -2, 20));
+            user.setNumberOfLatePayments(randomInt(random, -3, 10));
+            user.setNumberOfCreditInquiries(randomInt(random, -3, 10));
+
+            BigDecimal amount = randomAmount(random, 120_000);
+            if (amount == null) {
+                amount = BigDecimal.valueOf(random.nextInt(70_000));
+            }
+            int term = random.nextInt(100);
+            String purpose = pick(random, PURPOSES);
+            int approved = random.nextInt(5);
+            int rejected = random.nextInt(4);
+            int fullyPaid = random.nextInt(approved + 1);
+            int defaulted = random.nextInt(approved - fullyPaid + 1);
+
+            assertEquals(originalScore(user, amount, term, purpose, approved, rejected, fullyPaid, defaulted),
+                    engine.score(user, amount, term, purpose, approved, rejected, fullyPaid, defaulted),
+                    () -> "income=" + user.getAnnualIncome() + ", debts=" + user.getExistingDebts()
+                            + ", utilization=" + user.getCreditUtilization() + ", amount=" + amount);
+        }
+    }
+
+    @Test
+    void matchesOriginalDebtToIncomeRounding() {
+        Random random = new Random(7L);
+        String[] ratios = {"0.505", "0.365", "0.205", "0.515", "0.195"};
+        for (int i = 0; i < 100_000; i++) {
+            User user = new User();
+            BigDecimal income = BigDecimal.valueOf(1 + random.nextInt(300_000), random.nextInt(5));
+            user.setAnnualIncome(income);
+            BigDecimal epsilon = BigDecimal.ONE.movePointLeft(random.nextInt(9));
+            BigDecimal totalDebt = income.multiply(new BigDecimal(ratios[random.nextInt(ratios.length)]))
+                    .add(epsilon.multiply(BigDecimal.valueOf(random.nextInt(3) - 1)));
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(50_000), random.nextInt(3));
+            user.setExistingDebts(totalDebt.subtract(amount));
+
+            assertEquals(originalScore(user, amount, 24, "travel", 0, 0, 0, 0),
+                    engine.score(user, amount, 24, "travel", 0, 0, 0, 0),
+                    () -> "income=" + income + ", debts=" + user.getExistingDebts() + ", amount=" + amount);
+        }
+    }
+
+    @Test
+    void defaultRulesCompileToTheBuiltInTable() {
+        CreditScoringEngine compiled = ScoringRuleCompiler.compile(2, ScoringRuleCompiler.defaultRules());
+        assertEquals(2, compiled.getVersion());
+        Random random = new Random(99L);
+        for (int i = 0; i < 50_000; i++) {
+            User user = new User();
+            user.setAnnualIncome(randomAmount(random, 200_000));
+            user.setExistingDebts(randomAmount(random, 100_000));
+            user.setCreditUtilization(randomAmount(random, 100));
+            user.setEmploymentStatus(pick(random, EMPLOYMENT));
+            user.setMaritalStatus(pick(random, MARITAL));
+            user.setCreditMix(pick(random, CREDIT_MIX));
+            user.setAge(randomInt(random, 15, 80));
+            user.setCreditHistoryLength(randomInt(random, -2, 20));
+            user.setNumberOfLatePayments(randomInt(random, -3, 10));
+            user.setNumberOfCreditInquiries(randomInt(random, -3, 10));
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(7_000_000), 2);
+            int term = random.nextInt(100);
+            String purpose = pick(random, PURPOSES);
+
+            assertEquals(engine.score(user, amount, term, purpose, 2, 1, 1, 0),
+                    compiled.score(user, amount, term, purpose, 2, 1, 1, 0));
+        }
+    }
+
+    @Test
+    void countsCreditMixLikeStringSplit() {
+        for (String mix : CREDIT_MIX) {
+            if (mix != null && !mix.isEmpty()) {
+                assertEquals(mix.split(",").length, CreditScoringEngine.countCreditMixEntries(mix), mix);
+            }
+        }
+    }
+
+    private static BigDecimal randomAmount(Random random, long max) {
+        switch (random.nextInt(8)) {
+            case 0:
+                return null;
+            case 1: {
+                // Just either side of a band boundary, at various precisions
+                BigDecimal step = BigDecimal.ONE.movePointLeft(random.nextInt(7));
+                BigDecimal boundary = BigDecimal.valueOf(BOUNDARIES[random.nextInt(BOUNDARIES.length)]);
+                return boundary.add(random.nextBoolean() ? step : step.negate())
+                        .add(random.nextBoolean() ? BigDecimal.ZERO : step.negate());
+            }
+            case 2:
+                return new BigDecimal(random.nextLong()).movePointLeft(random.nextInt(20));
+            case 3:
+                return BigDecimal.valueOf(random.nextInt(200_000) - 1000, random.nextInt(7));
+            case 4:
+                return BigDecimal.valueOf(random.nextInt(1000), -random.nextInt(12));
+            default:
+                return BigDecimal.valueOf(Math.floorMod(random.nextLong(), max * 100), 2);
+        }
+    }
+
+    private static Integer randomInt(Random random, int from, int to) {
+        return random.nextInt(10) == 0 ? null : from + random.nextInt(to - from);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * The if/else ladder the engine replaced, kept verbatim as the reference.
+     */
+    private static int originalScore(User user, BigDecimal amount, Integer term, String purpose,
+                                     int approvedCount, int rejectedCount, int fullyPaidCount, int defaultedCount) {
+        int score = 500;
+
+        if (user.getAnnualIncome() != null) {
+            if (user.getAnnualIncome().compareTo(BigDecimal.valueOf(100000)) > 0) {
+                score += 50;
+            } else if (user.getAnnualIncome().compareTo(BigDecimal.valueOf(50000)) > 0) {
+                score += 25;
+            } else if (user.getAnnualIncome().compareTo(BigDecimal.valueOf(25000)) > 0) {
+                score += 10;
+            } else {
+                score -= 20;
+            }
+        }
+
+        if (user.getAnnualIncome() != null && user.getAnnualIncome().compareTo(BigDecimal.ZERO) > 0) {
+            BigDecimal totalDebt = user.getExistingDebts() != null ? user.getExistingDebts() : BigDecimal.ZERO;
+            totalDebt = totalDebt.add(amount);
+            BigDecimal dti = totalDebt.divide(user.getAnnualIncome(), 2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
+            if (dti.compareTo(BigDecimal.valueOf(50)) > 0) {
+                score -= 100;
+            } else if (dti.compareTo(BigDecimal.valueOf(36)) > 0) {
+                score -= 50;
+            } else if (dti.compareTo(BigDecimal.valueOf(20)) > 0) {
+                score -= 25;
+            }
+        }
+
+        if (user.getEmploymentStatus() != null) {
+            switch (user.getEmploymentStatus().toUpperCase()) {
+                case "EMPLOYED":
+                    score += 30;
+                    break;
+                case "SELF_EMPLOYED":
+                    score += 15;
+                    break;
+                case "UNEMPLOYED":
+                    score -= 50;
+                    break;
+                default:
+                    score += 5;
+                    break;
+            }
+        }
+
+        if (user.getAge() != null) {
+            if (user.getAge() < 25) {
+                score -= 20;
+            } else if (user.getAge() > 40) {
+                score += 15;
+            } else if (user.getAge() > 30) {
+                score += 10;
+            }
+        }
+
+        if (user.getMaritalStatus() != null && "MARRIED".equalsIgnoreCase(user.getMaritalStatus())) {
+            score += 10;
+        }
+
+        if (user.getCreditHistoryLength() != null) {
+            if (user.getCreditHistoryLength() >= 10) {
+                score += 30;
+            } else if (user.getCreditHistoryLength() >= 5) {
+                score += 20;
+            } else if (user.getCreditHistoryLength() >= 2) {
+                score += 10;
+            } else if (user.getCreditHistoryLength() >= 1) {
+                score += 5;
+            }
+        }
+
+        if (user.getNumberOfLatePayments() != null) {
+            if (user.getNumberOfLatePayments() == 0) {
+                score += 20;
+            } else if (user.getNumberOfLatePayments() <= 2) {
+                score -= 10;
+            } else if (user.getNumberOfLatePayments() <= 5) {
+                score -= 30;
+            } else {
+                score -= 50;
+            }
+        }
+
+        if (user.getCreditUtilization() != null) {
+            if (user.getCreditUtilization().compareTo(BigDecimal.valueOf(10)) <= 0) {
+                score += 20;
+            } else if (user.getCreditUtilization().compareTo(BigDecimal.valueOf(30)) <= 0) {
+                score += 10;
+            } else if (user.getCreditUtilization().compareTo(BigDecimal.valueOf(50)) <= 0) {
+                score -= 10;
+            } else {
+                score -= 30;
+            }
+        }
+
+        if (user.getNumberOfCreditInquiries() != null) {
+            if (user.getNumberOfCreditInquiries() == 0) {
+                score += 10;
+            } else if (user.getNumberOfCreditInquiries() <= 2) {
+                score -= 5;
+            } else if (user.getNumberOfCreditInquiries() <= 5) {
+                score -= 15;
+            } else {
+                score -= 25;
+            }
+        }
+
+        if (user.getCreditMix() != null && !user.getCreditMix().isEmpty()) {
+            String[] mix = user.getCreditMix().split(",");
+            if (mix.length >= 3) {
+                score += 15;
+            } else if (mix.length == 2) {
+                score += 10;
+            } else if (mix.length == 1) {
+                score += 5;
+            }
+        }
+
+        score += fullyPaidCount * 20;
+        score += (approvedCount - fullyPaidCount - defaultedCount) * 10;
+        score -= defaultedCount * 50;
+        score -= rejectedCount * 25;
+
+        if (amount.compareTo(BigDecimal.valueOf(50000)) > 0) {
+            score -= 75;
+        } else if (amount.compareTo(BigDecimal.valueOf(25000)) > 0) {
+            score -= 50;
+        } else if (amount.compareTo(BigDecimal.valueOf(10000)) > 0) {
+            score -= 25;
+        }
+
+        if (term > 60) {
+            score -= 25;
+        } else if (term > 36) {
+            score -= 15;
+        } else if (term > 24) {
+            score -= 10;
+        } else if (term > 12) {
+            score -= 5;
+        }
+
+        if ("business".equalsIgnoreCase(purpose)) {
+            score -= 40;
+        } else if ("personal".equalsIgnoreCase(purpose)) {
+            score += 10;
+        } else if ("home purchase".equalsIgnoreCase(purpose)) {
+            score += 20;
+        } else if ("education".equalsIgnoreCase(purpose)) {
+            score += 15;
+        }
+
+        return Math.max(300, Math.min(850, score));
+    }
+}
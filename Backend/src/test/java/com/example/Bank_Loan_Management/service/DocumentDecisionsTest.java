@@ -0,0 +1,132 @@
+package com.example.Bank_Loan_Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.example.Bank_Loan_Management.entity.Document;
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.DocumentRepository;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+
+/**
+ * Bulk review decisions. The JdbcTemplate is spied on so a test can change a document between the batch
+ * reading it and updating it, as a concurrent decision would; that needs its own context, so this class
+ * gets its own database and storage directory.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:document-decisions",
+        "documents.storage-dir=target/test-uploads-decisions"
+})
+class DocumentDecisionsTest {
+
+    private static final String DECISION_UPDATE = "UPDATE documents SET status = ? WHERE id = ? AND status = ?";
+
+    @Autowired
+    private DocumentService documentService;
+    @Autowired
+    private DocumentVerificationCounts verificationCounts;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void eachDecisionGetsItsOwnResult() throws Exception {
+        User borrower = borrower("bulk-borrower");
+        Document first = upload(borrower, "BULK_STATEMENT", "first statement");
+        Document second = upload(borrower, "BULK_STATEMENT", "second statement");
+        Document contested = upload(borrower, "BULK_CONTESTED", "contested statement");
+        for (Document document : List.of(first, second, contested)) {
+            awaitProcessing(document.getId());
+        }
+        // Another reviewer rejects the contested document after the batch has read it
+        doAnswer(invocation -> {
+            jdbcTemplate.update("UPDATE documents SET status = 'REJECTED' WHERE id = ?", contested.getId());
+            return invocation.callRealMethod();
+        }).when(jdbcTemplate).batchUpdate(eq(DECISION_UPDATE), anyList());
+
+        List<DocumentService.DecisionResult> results = documentService.decideDocuments(List.of(
+                new DocumentService.Decision(first.getId(), Document.Status.VERIFIED),
+                new DocumentService.Decision(first.getId(), Document.Status.REJECTED),
+                new DocumentService.Decision(Long.MAX_VALUE, Document.Status.VERIFIED),
+                new DocumentService.Decision(contested.getId(), Document.Status.VERIFIED),
+                new DocumentService.Decision(second.getId(), Document.Status.VERIFIED)));
+
+        assertEquals(Arrays.asList(null, "Duplicate document id", "Document not found",
+                "Document status changed concurrently", null), errors(results));
+        assertEquals(Document.Status.VERIFIED, status(first));
+        assertEquals(Document.Status.VERIFIED, status(second));
+        assertEquals(Document.Status.REJECTED, status(contested));
+        // Only the applied decisions moved documents between the counts
+        assertEquals(0, verificationCounts.countInStatus(Document.Status.UPLOADED, "BULK_STATEMENT"));
+        assertEquals(2, verificationCounts.countInStatus(Document.Status.VERIFIED, "BULK_STATEMENT"));
+        assertEquals(0, verificationCounts.countInStatus(Document.Status.VERIFIED, "BULK_CONTESTED"));
+    }
+
+    @Test
+    void singleDecisionOnAMissingDocumentFails() {
+        RuntimeException error = assertThrows(RuntimeException.class, () -> documentService.verifyDocument(Long.MAX_VALUE));
+        assertEquals("Document not found", error.getMessage());
+    }
+
+    @Test
+    void refusesBatchesOverTheLimit() {
+        List<DocumentService.Decision> decisions = new ArrayList<>();
+        for (long id = 1; id <= DocumentService.MAX_DECISIONS + 1; id++) {
+            decisions.add(new DocumentService.Decision(id, Document.Status.VERIFIED));
+        }
+        assertThrows(IllegalArgumentException.class, () -> documentService.decideDocuments(decisions));
+    }
+
+    private static List<String> errors(List<DocumentService.DecisionResult> results) {
+        return results.stream().map(DocumentService.DecisionResult::getError).toList();
+    }
+
+    private Document.Status status(Document document) {
+        return documentRepository.findById(document.getId()).orElseThrow().getStatus();
+    }
+
+    private User borrower(String username) {
+        User borrower = new User();
+        borrower.setUsername(username);
+        borrower.setPassword("unused");
+        borrower.setEmail(username + "@example.com");
+        borrower.setRole(User.Role.USER);
+        borrower.setCreatedAt(LocalDateTime.now());
+        return userRepository.save(borrower);
+    }
+
+    private Document upload(User borrower, String documentType, String text) throws Exception {
+        return documentService.uploadDocument(borrower, new MockMultipartFile("file", documentType.toLowerCase() + ".txt",
+                "text/plain", text.getBytes(StandardCharsets.UTF_8)), documentType);
+    }
+
+    private void awaitProcessing(Long documentId) throws InterruptedException {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            if (documentRepository.findById(documentId).orElseThrow().getStatus() == Document.Status.UPLOADED) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Document " + documentId + " was not processed in time");
+    }
+}
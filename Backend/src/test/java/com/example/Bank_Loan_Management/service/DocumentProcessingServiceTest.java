@@ -0,0 +1,122 @@
+package com.example.Bank_Loan_Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Bank_Loan_Management.entity.Document;
+import com.example.Bank_Loan_Management.entity.DocumentProcessingJob;
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.DocumentProcessingJobRepository;
+import com.example.Bank_Loan_Management.repository.DocumentRepository;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+
+/**
+ * Processing jobs for documents whose content is missing from the store, so every attempt fails. Each test
+ * uses its own borrower and document type.
+ */
+@SpringBootTest
+class DocumentProcessingServiceTest {
+
+    private static final String MISSING_CONTENT = "0".repeat(64);
+
+    @Autowired
+    private DocumentProcessingService documentProcessingService;
+    @Autowired
+    private DocumentVerificationCounts verificationCounts;
+    @Autowired
+    private DocumentProcessingJobRepository jobRepository;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void failedAttemptIsRetriedAfterABackoff() throws InterruptedException {
+        LocalDateTime enqueuedAt = LocalDateTime.now();
+        Long documentId = failingDocument(borrower("retry-borrower"), "RETRY_STATEMENT");
+
+        DocumentProcessingJob job = awaitJob(documentId, j -> j.getAttempts() == 1);
+        assertEquals(DocumentProcessingJob.Status.PENDING, job.getStatus());
+        assertNotNull(job.getLastError());
+        // The first retry waits 10 s
+        assertTrue(job.getNextAttemptAt().isAfter(enqueuedAt.plusSeconds(9)), "Retry due at " + job.getNextAttemptAt());
+        assertTrue(job.getNextAttemptAt().isBefore(LocalDateTime.now().plusSeconds(11)), "Retry due at " + job.getNextAttemptAt());
+        assertEquals(Document.Status.PROCESSING, documentRepository.findById(documentId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void lastFailedAttemptLeavesTheDocumentProcessingFailed() throws InterruptedException {
+        Long documentId = failingDocument(borrower("give-up-borrower"), "GIVE_UP_STATEMENT");
+        DocumentProcessingJob job = awaitJob(documentId, j -> j.getAttempts() == 1);
+
+        // Skip ahead to the last attempt and make it due now
+        job.setAttempts(4);
+        job.setNextAttemptAt(LocalDateTime.now());
+        jobRepository.save(job);
+
+        job = awaitJob(documentId, j -> j.getStatus() == DocumentProcessingJob.Status.FAILED);
+        assertEquals(5, job.getAttempts());
+        assertEquals(Document.Status.PROCESSING_FAILED, documentRepository.findById(documentId).orElseThrow().getStatus());
+        assertEquals(0, verificationCounts.countInStatus(Document.Status.PROCESSING, "GIVE_UP_STATEMENT"));
+        assertEquals(1, verificationCounts.countInStatus(Document.Status.PROCESSING_FAILED, "GIVE_UP_STATEMENT"));
+    }
+
+    private User borrower(String username) {
+        User borrower = new User();
+        borrower.setUsername(username);
+        borrower.setPassword("unused");
+        borrower.setEmail(username + "@example.com");
+        borrower.setRole(User.Role.USER);
+        borrower.setCreatedAt(LocalDateTime.now());
+        return userRepository.save(borrower);
+    }
+
+    /**
+     * Saves and enqueues a document the way an upload does, but pointing at content that was never stored.
+     */
+    private Long failingDocument(User borrower, String documentType) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Document document = new Document();
+            document.setUser(borrower);
+            document.setDocumentType(documentType);
+            document.setFileName("statement.pdf");
+            document.setContentHash(MISSING_CONTENT);
+            document.setContentType("application/pdf");
+            document.setFileSize(1L);
+            document.setStatus(Document.Status.PROCESSING);
+            Document saved = documentRepository.save(document);
+            verificationCounts.documentAdded(borrower.getId(), documentType);
+            documentProcessingService.enqueue(saved);
+            return saved.getId();
+        });
+    }
+
+    private DocumentProcessingJob awaitJob(Long documentId, Predicate<DocumentProcessingJob> condition)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (System.nanoTime() < deadline) {
+            DocumentProcessingJob job = jobRepository.findAll().stream()
+                    .filter(j -> j.getDocumentId().equals(documentId))
+                    .findFirst()
+                    .orElseThrow();
+            if (condition.test(job)) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Processing job for document " + documentId + " did not get there in time");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.Bank_Loan_Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.example.Bank_Loan_Management.entity.Document;
+import com.example.Bank_Loan_Management.entity.LoanApplication;
+import com.example.Bank_Loan_Management.entity.User;
+import com.example.Bank_Loan_Management.repository.DocumentRepository;
+import com.example.Bank_Loan_Management.repository.LoanApplicationRepository;
+import com.example.Bank_Loan_Management.repository.UserRepository;
+
+/**
+ * Uploads go through processing and review against the real database, checking the counts that are kept
+ * alongside the documents. Each test uses its own borrower and document types, so the counts it reads are
+ * its own.
+ */
+@SpringBootTest
+class DocumentServiceTest {
+
+    @Autowired
+    private DocumentService documentService;
+    @Autowired
+    private DocumentVerificationCounts verificationCounts;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Test
+    void everyUploadIsCountedInItsStatus() throws Exception {
+        User borrower = borrower("counts-borrower");
+        Document first = upload(borrower, "COUNTS_INCOME", "first payslip");
+        Document second = upload(borrower, "COUNTS_INCOME", "second payslip");
+        awaitProcessing(first.getId());
+        awaitProcessing(second.getId());
+
+        assertEquals(0, verificationCounts.countInStatus(Document.Status.PROCESSING, "COUNTS_INCOME"));
+        assertEquals(2, verificationCounts.countInStatus(Document.Status.UPLOADED, "COUNTS_INCOME"));
+        assertEquals(2, documentService.estimateReviewQueueSize(Document.Status.UPLOADED, "COUNTS_INCOME", null));
+        assertEquals(2, documentService.estimateReviewQueueSize(Document.Status.UPLOADED, "COUNTS_INCOME", borrower.getId()));
+    }
+
+    @Test
+    void loansArePromotedOnceEveryDocumentTypeHasAVerifiedDocument() throws Exception {
+        User borrower = borrower("promotion-borrower");
+        Document payslip = upload(borrower, "PROMOTION_INCOME", "payslip");
+        Document secondPayslip = upload(borrower, "PROMOTION_INCOME", "another payslip");
+        Document passport = upload(borrower, "PROMOTION_ID", "passport");
+        awaitProcessing(payslip.getId());
+        awaitProcessing(secondPayslip.getId());
+        awaitProcessing(passport.getId());
+        Long loanId = appliedLoan(borrower).getId();
+
+        documentService.verifyDocument(payslip.getId());
+        assertFalse(verificationCounts.allTypesVerified(borrower.getId()));
+        assertEquals(LoanApplication.Status.APPLIED, loanApplicationRepository.findById(loanId).orElseThrow().getStatus());
+
+        // Rejecting another document of a type that already has a verified one leaves the type verified
+        documentService.rejectDocument(secondPayslip.getId());
+        documentService.verifyDocument(passport.getId());
+        assertTrue(verificationCounts.allTypesVerified(borrower.getId()));
+        LoanApplication promoted = loanApplicationRepository.findById(loanId).orElseThrow();
+        assertEquals(LoanApplication.Status.VERIFIED, promoted.getStatus());
+        assertTrue(promoted.isDocumentsVerified());
+
+        // A rejection takes the borrower's loans back to not verified
+        documentService.rejectDocument(passport.getId());
+        assertFalse(verificationCounts.allTypesVerified(borrower.getId()));
+        assertFalse(loanApplicationRepository.findById(loanId).orElseThrow().isDocumentsVerified());
+        assertEquals(1, verificationCounts.countInStatus(Document.Status.VERIFIED, "PROMOTION_INCOME"));
+        assertEquals(1, verificationCounts.countInStatus(Document.Status.REJECTED, "PROMOTION_INCOME"));
+        assertEquals(1, verificationCounts.countInStatus(Document.Status.REJECTED, "PROMOTION_ID"));
+    }
+
+    private LoanApplication appliedLoan(User borrower) {
+        LoanApplication application = new LoanApplication();
+        application.setUser(borrower);
+        application.setAmount(new BigDecimal("10000"));
+        application.setTerm(24);
+        application.setPurpose("Personal");
+        application.setStatus(LoanApplication.Status.APPLIED);
+        application.setAppliedDate(LocalDateTime.now());
+        return loanApplicationRepository.save(application);
+    }
+
+    private User borrower(String username) {
+        User borrower = new User();
+        borrower.setUsername(username);
+        borrower.setPassword("unused");
+        borrower.setEmail(username + "@example.com");
+        borrower.setRole(User.Role.USER);
+        borrower.setCreatedAt(LocalDateTime.now());
+        return userRepository.save(borrower);
+    }
+
+    private Document upload(User borrower, String documentType, String text) throws IOException {
+        return documentService.uploadDocument(borrower, new MockMultipartFile("file", documentType.toLowerCase() + ".txt",
+                "text/plain", text.getBytes(StandardCharsets.UTF_8)), documentType);
+    }
+
+    private Document awaitProcessing(Long documentId) throws InterruptedException {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Document document = documentRepository.findById(documentId).orElseThrow();
+            if (document.getStatus() != Document.Status.PROCESSING) {
+                assertEquals(Document.Status.UPLOADED, document.getStatus());
+                return document;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Document " + documentId + " was not processed in time");
+    }
+}
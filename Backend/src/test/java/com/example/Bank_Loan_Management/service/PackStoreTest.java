@@ -0,0 +1,96 @@
+package com.example.Bank_Loan_Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PackStoreTest {
+
+    private static final String PLAIN_HASH = "11".repeat(32);
+    private static final String GZIP_HASH = "22".repeat(32);
+    private static final String LATER_HASH = "33".repeat(32);
+
+    @TempDir
+    Path uploads;
+
+    @Test
+    void entriesSurviveAReload() throws IOException {
+        Path plain = file("plain.txt", "first document", 1_700_000_000_000L);
+        Path compressed = file("compressed.gz", "second document, stored compressed", 1_700_000_123_000L);
+
+        PackStore store = new PackStore(uploads);
+        PackStore.Entry first = store.append(PLAIN_HASH, plain, null);
+        PackStore.Entry second = store.append(GZIP_HASH, compressed, ContentStore.GZIP);
+        // Appending known content again is a no-op
+        assertSame(first, store.append(PLAIN_HASH, compressed, ContentStore.GZIP));
+        store.close();
+
+        PackStore reloaded = new PackStore(uploads);
+        assertEntry(reloaded.find(PLAIN_HASH), first, null, 1_700_000_000_000L, "first document");
+        assertEntry(reloaded.find(GZIP_HASH), second, ContentStore.GZIP, 1_700_000_123_000L,
+                "second document, stored compressed");
+        assertEquals(first.getLength(), second.getOffset());
+        assertNull(reloaded.find(LATER_HASH));
+        reloaded.close();
+    }
+
+    @Test
+    void recordCutShortByACrashIsIgnoredAndTruncated() throws IOException {
+        PackStore store = new PackStore(uploads);
+        PackStore.Entry first = store.append(PLAIN_HASH, file("plain.txt", "first document", 1_700_000_000_000L), null);
+        store.close();
+        // A crash after the content was appended but partway through writing its index record
+        Path pack = uploads.resolve("packs").resolve("segment-000001.pack");
+        Path index = uploads.resolve("packs").resolve("segment-000001.idx");
+        Files.write(pack, "orphaned bytes".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Files.write(index, new byte[PackStore.RECORD_SIZE / 2], StandardOpenOption.APPEND);
+
+        PackStore recovered = new PackStore(uploads);
+        assertEntry(recovered.find(PLAIN_HASH), first, null, 1_700_000_000_000L, "first document");
+        assertNull(recovered.find(GZIP_HASH));
+
+        PackStore.Entry later = recovered.append(LATER_HASH, file("later.txt", "appended after recovery", 1_700_000_456_000L), null);
+        assertEquals(2L * PackStore.RECORD_SIZE, Files.size(index));
+        recovered.close();
+
+        PackStore reloaded = new PackStore(uploads);
+        assertEntry(reloaded.find(PLAIN_HASH), first, null, 1_700_000_000_000L, "first document");
+        assertEntry(reloaded.find(LATER_HASH), later, null, 1_700_000_456_000L, "appended after recovery");
+        reloaded.close();
+    }
+
+    private Path file(String name, String content, long lastModified) throws IOException {
+        Path file = Files.writeString(uploads.resolve(name), content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+        return file;
+    }
+
+    private static void assertEntry(PackStore.Entry entry, PackStore.Entry expected, String encoding, long lastModified,
+                                    String content) throws IOException {
+        assertEquals(expected.getFile(), entry.getFile());
+        assertEquals(expected.getOffset(), entry.getOffset());
+        assertEquals(expected.getLength(), entry.getLength());
+        assertEquals(encoding, entry.getEncoding());
+        assertEquals(lastModified, entry.getLastModified());
+        ByteBuffer bytes = ByteBuffer.allocate((int) entry.getLength());
+        try (FileChannel channel = FileChannel.open(entry.getFile(), StandardOpenOption.READ)) {
+            while (bytes.hasRemaining() && channel.read(bytes, entry.getOffset() + bytes.position()) > 0) {
+                // Positional reads until the entry is complete
+            }
+        }
+        assertArrayEquals(content.getBytes(StandardCharsets.UTF_8), bytes.array());
+    }
+}
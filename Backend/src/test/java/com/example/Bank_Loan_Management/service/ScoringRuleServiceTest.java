@@ -0,0 +1,89 @@
+package com.example.Bank_Loan_Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Bank_Loan_Management.entity.ScoringRuleSet;
+import com.example.Bank_Loan_Management.repository.ScoringRuleSetRepository;
+
+/**
+ * Activating a rule set against the real database. The engine in use only changes once the activation
+ * commits, and exactly one version is active afterwards. Each test puts the version it found back.
+ */
+@SpringBootTest
+class ScoringRuleServiceTest {
+
+    @Autowired
+    private ScoringRuleService scoringRuleService;
+    @Autowired
+    private ScoringRuleSetRepository scoringRuleSetRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int originalVersion;
+
+    @BeforeEach
+    void rememberActiveVersion() {
+        originalVersion = scoringRuleService.getActiveEngine().getVersion();
+    }
+
+    @AfterEach
+    void restoreActiveVersion() {
+        scoringRuleService.activate(originalVersion);
+    }
+
+    @Test
+    void activationSwapsTheEngineOnlyAfterCommit() {
+        int version = scoringRuleService.createRuleSet("Activation test", ScoringRuleCompiler.defaultRules()).getVersion();
+        assertEquals(originalVersion, scoringRuleService.getActiveEngine().getVersion());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            scoringRuleService.activate(version);
+            // Still scoring with the old rules while the change could roll back
+            assertEquals(originalVersion, scoringRuleService.getActiveEngine().getVersion());
+        });
+
+        assertEquals(version, scoringRuleService.getActiveEngine().getVersion());
+        assertEquals(List.of(version), activeVersions());
+    }
+
+    @Test
+    void rolledBackActivationKeepsTheEngine() {
+        int version = scoringRuleService.createRuleSet("Rollback test", ScoringRuleCompiler.defaultRules()).getVersion();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            scoringRuleService.activate(version);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(originalVersion, scoringRuleService.getActiveEngine().getVersion());
+        assertEquals(List.of(originalVersion), activeVersions());
+    }
+
+    @Test
+    void newRuleSetStaysInactiveAndCanBeReplayed() {
+        ScoringRuleSet created = scoringRuleService.createRuleSet("Replay test", ScoringRuleCompiler.defaultRules());
+
+        assertFalse(created.isActive());
+        assertEquals(created.getVersion(), scoringRuleService.getEngine(created.getVersion()).getVersion());
+        assertTrue(activeVersions().contains(originalVersion));
+    }
+
+    private List<Integer> activeVersions() {
+        return scoringRuleSetRepository.findAllByOrderByVersionDesc().stream()
+                .filter(ScoringRuleSet::isActive)
+                .map(ScoringRuleSet::getVersion)
+                .toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.Bank_Loan_Management.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fan-out, overflow and the subscriber cap, with emitters that record what would have been written to the
+ * socket instead of writing it.
+ */
+class StatusEventServiceTest {
+
+    private final StatusEventService service = new StatusEventService();
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void borrowersOnlyReceiveTheirOwnEvents() throws InterruptedException {
+        RecordingEmitter borrower = new RecordingEmitter(null);
+        RecordingEmitter staff = new RecordingEmitter(null);
+        service.subscribe(1L, false, borrower);
+        service.subscribe(99L, true, staff);
+
+        service.publishLoanStatus(1L, 10L, "APPROVED");
+        service.publishDocumentStatus(2L, 20L, "VERIFIED");
+
+        staff.await(3);
+        borrower.await(2);
+        assertEquals(List.of("heartbeat", "loan:10:APPROVED", "document:20:VERIFIED"), staff.events());
+        assertEquals(List.of("heartbeat", "loan:10:APPROVED"), borrower.events());
+    }
+
+    @Test
+    void subscriberThatFallsBehindGetsOneResyncInsteadOfItsBacklog() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        service.subscribe(1L, false, slow);
+        // The opening heartbeat is now blocked in its write, so everything published queues up behind it
+        slow.await(1);
+        for (long id = 1; id <= StatusEventService.BUFFER_SIZE + 10; id++) {
+            service.publishLoanStatus(1L, id, "APPLIED");
+        }
+        release.countDown();
+        slow.await(2);
+
+        service.publishLoanStatus(1L, 1_000L, "VERIFIED");
+        slow.await(3);
+        assertEquals(List.of("heartbeat", "resync", "loan:1000:VERIFIED"), slow.events());
+    }
+
+    @Test
+    void refusesSubscribersOverTheCap() {
+        for (int i = 0; i < StatusEventService.MAX_SUBSCRIBERS; i++) {
+            service.subscribe((long) i, false, new RecordingEmitter(null));
+        }
+        assertEquals(StatusEventService.MAX_SUBSCRIBERS, service.getSubscriberCount());
+        assertThrows(RuntimeException.class, () -> service.subscribe(-1L, false, new RecordingEmitter(null)));
+    }
+
+    /**
+     * Records each event as "heartbeat", "resync" or "type:id:status". With a latch, the first write blocks
+     * until it is released, like a client that has stopped reading.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder event) {
+            String text = event.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining());
+            sent.add(describe(text));
+            if (release != null && sent.size() == 1) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private static String describe(String text) {
+            if (text.contains(":heartbeat")) {
+                return "heartbeat";
+            }
+            if (text.contains("event:resync")) {
+                return "resync";
+            }
+            String json = text.substring(text.indexOf('{'), text.lastIndexOf('}') + 1);
+            return field(json, "type") + ":" + field(json, "id") + ":" + field(json, "status");
+        }
+
+        private static String field(String json, String name) {
+            int start = json.indexOf("\"" + name + "\":") + name.length() + 3;
+            int end = start;
+            while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') {
+                end++;
+            }
+            return json.substring(start, end).replace("\"", "");
+        }
+
+        List<String> events() {
+            return List.copyOf(sent);
+        }
+
+        void await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (sent.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(sent.size() >= count, "Expected " + count + " events, got " + sent);
+            // Give anything that should not have been sent a moment to show up
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.Bank_Loan_Management.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FileRangeWriterTest {
+
+    private static final long[] IGNORED = {};
+    private static final long[] UNSATISFIABLE = null;
+
+    // Range header, content length, then {start, end}, IGNORED (whole content) or UNSATISFIABLE (416)
+    private static final Object[][] RANGES = {
+            {"bytes=0-4", 10L, new long[] {0, 4}},
+            {"bytes=5-", 10L, new long[] {5, 9}},
+            {"bytes=9-9", 10L, new long[] {9, 9}},
+            {"bytes=3-100", 10L, new long[] {3, 9}},
+            {"bytes=-3", 10L, new long[] {7, 9}},
+            {"bytes=-20", 10L, new long[] {0, 9}},
+            {"bytes= 2 - 4 ", 10L, new long[] {2, 4}},
+            {"bytes=10-", 10L, UNSATISFIABLE},
+            {"bytes=10-20", 10L, UNSATISFIABLE},
+            {"bytes=-0", 10L, UNSATISFIABLE},
+            {"bytes=0-", 0L, UNSATISFIABLE},
+            {"bytes=-5", 0L, UNSATISFIABLE},
+            {"bytes=5-2", 10L, IGNORED},
+            {"bytes=0-1,4-5", 10L, IGNORED},
+            {"items=0-4", 10L, IGNORED},
+            {"bytes=4", 10L, IGNORED},
+            {"bytes=a-b", 10L, IGNORED},
+    };
+
+    private static final String CONTENT = "0123456789";
+    private static final String ETAG = "\"content-v1\"";
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parsesRangeHeaders() {
+        for (Object[] row : RANGES) {
+            String header = (String) row[0];
+            long[] expected = (long[]) row[2];
+            long[] bounds = FileRangeWriter.parseRange(header, (Long) row[1]);
+            if (expected == UNSATISFIABLE) {
+                assertNull(bounds, header);
+            } else {
+                assertArrayEquals(expected, bounds, header);
+            }
+        }
+    }
+
+    @Test
+    void answersUnsatisfiableRangeWith416() throws IOException {
+        MockHttpServletResponse response = write(request("bytes=10-", null));
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(), response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void servesRangeOfContentWithinLargerFile() throws IOException {
+        MockHttpServletResponse response = write(request("bytes=2-4", null));
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.getStatus());
+        assertEquals("bytes 2-4/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("234", response.getContentAsString());
+    }
+
+    @Test
+    void honorsRangeOnlyWhileIfRangeMatches() throws IOException {
+        assertPartial(write(request("bytes=2-4", ETAG)));
+        assertPartial(write(request("bytes=2-4", httpDate(LAST_MODIFIED))));
+
+        assertWhole(write(request("bytes=2-4", "\"content-v0\"")));
+        // A weak validator never matches for ranges
+        assertWhole(write(request("bytes=2-4", "W/" + ETAG)));
+        assertWhole(write(request("bytes=2-4", httpDate(LAST_MODIFIED - 60_000))));
+        assertWhole(write(request("bytes=2-4", "not a date")));
+    }
+
+    @Test
+    void onlyImmutableContentIsCachedWithoutRevalidation() throws IOException {
+        Path file = Files.writeString(directory.resolve("content"), CONTENT);
+        MockHttpServletResponse immutable = new MockHttpServletResponse();
+        FileRangeWriter.write(new MockHttpServletRequest("GET", "/"), immutable, file, 0, CONTENT.length(), ETAG,
+                LAST_MODIFIED, true);
+        assertEquals("private, max-age=31536000, immutable", immutable.getHeader(HttpHeaders.CACHE_CONTROL));
+
+        MockHttpServletResponse changing = new MockHttpServletResponse();
+        FileRangeWriter.write(new MockHttpServletRequest("GET", "/"), changing, file, 0, CONTENT.length(), ETAG,
+                LAST_MODIFIED, false);
+        assertEquals("private, no-cache", changing.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    private MockHttpServletResponse write(MockHttpServletRequest request) throws IOException {
+        // The content sits between other bytes, as it does in a pack segment
+        Path file = Files.writeString(directory.resolve("segment.pack"), "xx" + CONTENT + "yy");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileRangeWriter.write(request, response, file, 2, CONTENT.length(), ETAG, LAST_MODIFIED);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String range, String ifRange) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/loan-manager/documents/1/view");
+        request.addHeader(HttpHeaders.RANGE, range);
+        if (ifRange != null) {
+            request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+        return request;
+    }
+
+    private static void assertPartial(MockHttpServletResponse response) throws IOException {
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.getStatus());
+        assertEquals("234", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private static void assertWhole(MockHttpServletResponse response) throws IOException {
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(CONTENT, response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private static String httpDate(long epochMillis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC));
+    }
+}
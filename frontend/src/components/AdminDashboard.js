@@ -45,18 +45,26 @@ function AdminDashboard({ user, addNotification }) {
 
   const fetchLoans = async () => {
     try {
-      const response = await fetch('/api/admin/loans', {
-        headers: {
-          'Authorization': `Bearer ${localStorage.getItem('token')}`
+      // The listing is paged newest first; follow X-Next-Cursor so older loans are not left out
+      const data = [];
+      let cursor = null;
+      do {
+        const query = `?limit=500${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ''}`;
+        const response = await fetch(`/api/admin/loans${query}`, {
+          headers: {
+            'Authorization': `Bearer ${localStorage.getItem('token')}`
+          }
+        });
+        if (!response.ok) {
+          throw new Error(`Failed to fetch loans: ${response.status}`);
         }
-      });
-      if (response.ok) {
-        const data = await response.json();
-        console.log('Fetched loans data:', data);
-        console.log('First loan user:', data[0]?.user);
-        setLoans(data);
-        setLoading(false);
-      }
+        data.push(...(await response.json()));
+        cursor = response.headers.get('X-Next-Cursor');
+      } while (cursor);
+      console.log('Fetched loans data:', data);
+      console.log('First loan user:', data[0]?.user);
+      setLoans(data);
+      setLoading(false);
     } catch (error) {
       console.error('Error fetching loans:', error);
       addNotification('Failed to fetch loans', 'error');